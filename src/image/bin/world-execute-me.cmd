@@ -0,0 +1,4 @@
+@echo off
+rem Starts the show on the trimmed runtime with the AppCDS archive from the training run.
+set DIR=%~dp0..
+"%DIR%\runtime\bin\java" -Xshare:auto -XX:SharedArchiveFile="%DIR%\app\world-execute-me.jsa" -cp "%DIR%\app\world-execute-me.jar" com.worldexecute.Main %*
@@ -0,0 +1,26 @@
+package com.worldexecute;
+
+/**
+ * BenchmarkSupport - Puts the show into headless mode for benchmarking.
+ * Frames go to a NullSink and every pace() returns immediately, so a
+ * benchmark measures only the work of building and rendering frames.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Routes output to a fresh null sink and switches to an instant virtual clock.
+     *
+     * @return The sink, for reading byte counts
+     */
+    static NullSink headless() {
+        NullSink sink = new NullSink();
+        Terminal.setSink(sink);
+        TimelineScheduler scheduler = new TimelineScheduler(0, new VirtualClock(0));
+        TimelineScheduler.setShared(scheduler);
+        scheduler.start();
+        return sink;
+    }
+}
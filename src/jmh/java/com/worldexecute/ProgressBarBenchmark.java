@@ -0,0 +1,47 @@
+package com.worldexecute;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProgressBarBenchmark - Building and rendering every frame of one progress bar effect.
+ * simulateWorld and simulateWorld2 draw 70 frames each, simulateLoading 11.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProgressBarBenchmark {
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.headless();
+    }
+
+    @Benchmark
+    public void simulateWorld() {
+        TextAnimator.simulateWorld(1);
+    }
+
+    @Benchmark
+    public void simulateWorld2() {
+        TextAnimator.simulateWorld2(2);
+    }
+
+    @Benchmark
+    public void simulateLoading() {
+        ConsoleUtils.simulateLoading("Loading", 100, 10);
+    }
+}
@@ -0,0 +1,42 @@
+package com.worldexecute;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReadFileColorBenchmark - Rendering a whole text asset through readFileColor.
+ * Spans are compiled in setup, as the cue sheet compiler does before the show.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReadFileColorBenchmark {
+
+    @Param({"textFiles/generatingWorld2", "textFiles/lobotomy"})
+    String asset;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.headless();
+        FileReaderUtil.prepareColor(asset, ColorRules.DEFAULT);
+    }
+
+    @Benchmark
+    public void readFileColor() {
+        FileReaderUtil.readFileColor(asset, ColorRules.DEFAULT);
+    }
+}
@@ -0,0 +1,60 @@
+package com.worldexecute;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShowBenchmark - One full pass of the default show into a null sink.
+ * The "bytes" counter reports rendered bytes per second next to passes per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ShowBenchmark {
+
+    private Timeline timeline;
+    private NullSink sink;
+
+    /**
+     * Bytes written during the iteration; JMH divides by the iteration time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Output {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        timeline = CueSheet.loadDefault();
+        sink = BenchmarkSupport.headless();
+    }
+
+    @Benchmark
+    public void fullShow(Output output) {
+        long before = sink.getByteCount();
+        TimelineScheduler.shared().start();
+        WorldExecute.play(timeline);
+        output.bytes += sink.getByteCount() - before;
+    }
+}
@@ -0,0 +1,56 @@
+package com.worldexecute;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShuffleBenchmark - Cost of one shuffle frame of animateText, allocating and into a reused buffer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShuffleBenchmark {
+
+    /** Lengths of real animateText phrases, from a short word to a full line. */
+    @Param({"12", "23", "64"})
+    int length;
+
+    private String text;
+    private char[] buffer;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder(length);
+        String source = "Song: World.Execute(Me) Producer: Mili ";
+        for (int i = 0; i < length; i++) {
+            builder.append(source.charAt(i % source.length()));
+        }
+        text = builder.toString();
+        buffer = new char[length];
+    }
+
+    @Benchmark
+    public char[] shuffleWords() {
+        return TextAnimator.shuffleWords(text);
+    }
+
+    @Benchmark
+    public char[] shuffleInto() {
+        TextAnimator.shuffleInto(text, buffer);
+        return buffer;
+    }
+}
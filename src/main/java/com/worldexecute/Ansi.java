@@ -0,0 +1,112 @@
+package com.worldexecute;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ansi - The escape sequences the show uses, encoded once.
+ * Color names map to SGR codes in one place, and the renderer copies the
+ * pre-encoded bytes of colors, clears and cursor moves straight into its
+ * frame buffer instead of formatting them on every frame.
+ *
+ * Features:
+ * - Color name lookup shared by every effect and by color rules
+ * - Pre-encoded SGR colors, screen clear and scroll region reset
+ * - Pre-encoded decimal numbers for cursor positions
+ */
+public final class Ansi {
+
+    public static final byte ESC = 0x1B;
+
+    /** "ESC[" */
+    public static final byte[] CSI = {ESC, '['};
+
+    /** Home the cursor and clear the screen. */
+    public static final byte[] CLEAR = encode("\u001B[H\u001B[2J");
+
+    /** Reset the scroll region to the whole screen. */
+    public static final byte[] RESET_SCROLL_REGION = encode("\u001B[r");
+
+    private static final int MAX_SGR = 39;
+    private static final int MAX_DECIMAL = 999;
+
+    private static final String[] SGR_STRINGS = new String[MAX_SGR + 1];
+    private static final byte[][] SGR_BYTES = new byte[MAX_SGR + 1][];
+    private static final byte[][] DECIMALS = new byte[MAX_DECIMAL + 1][];
+
+    static {
+        for (int code = 0; code <= MAX_SGR; code++) {
+            SGR_STRINGS[code] = "\u001B[" + code + "m";
+            SGR_BYTES[code] = encode(SGR_STRINGS[code]);
+        }
+        for (int value = 0; value <= MAX_DECIMAL; value++) {
+            DECIMALS[value] = encode(Integer.toString(value));
+        }
+    }
+
+    private Ansi() {
+    }
+
+    /**
+     * Gets the SGR foreground code for a color name.
+     *
+     * @param color Color name (green, blue, yellow, red, cyan, purple, white); empty or unknown means green
+     * @return SGR code, 30 to 37
+     */
+    public static int sgrCode(String color) {
+        if (color == null || color.isEmpty()) {
+            return 32;
+        }
+
+        switch (color.toLowerCase()) {
+            case "green":
+                return 32;
+            case "blue":
+            case "cyan":
+                return 36;
+            case "yellow":
+                return 33;
+            case "red":
+                return 31;
+            case "purple":
+                return 35;
+            case "white":
+                return 37;
+            default:
+                return 32;
+        }
+    }
+
+    /**
+     * Gets the escape sequence for a color name, for text printed into the screen.
+     *
+     * @param color Color name, see sgrCode
+     * @return ANSI color code string, e.g. "\u001B[32m"
+     */
+    public static String colorCode(String color) {
+        return SGR_STRINGS[sgrCode(color)];
+    }
+
+    /**
+     * Gets the encoded SGR sequence for a code.
+     *
+     * @param code SGR code, 0 to 39
+     * @return "ESC[&lt;code&gt;m" as bytes; shared, must not be modified
+     */
+    public static byte[] sgr(int code) {
+        return SGR_BYTES[code];
+    }
+
+    /**
+     * Gets the ASCII digits of a small number, e.g. for cursor positions.
+     *
+     * @param value Number to encode
+     * @return Digits as bytes, or null if the value is outside 0 to 999; shared, must not be modified
+     */
+    public static byte[] decimal(int value) {
+        return value >= 0 && value <= MAX_DECIMAL ? DECIMALS[value] : null;
+    }
+
+    private static byte[] encode(String sequence) {
+        return sequence.getBytes(StandardCharsets.UTF_8);
+    }
+}
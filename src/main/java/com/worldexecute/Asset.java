@@ -0,0 +1,74 @@
+package com.worldexecute;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Asset - Immutable, fully decoded text asset.
+ * Keeps the decoded lines only; they are drawn into the screen cell by cell,
+ * and the renderer encodes whatever ends up on the terminal.
+ */
+public final class Asset {
+
+    private final String name;
+    private final String[] lines;
+
+    private Asset(String name, String[] lines) {
+        this.name = name;
+        this.lines = lines;
+    }
+
+    /**
+     * Builds an asset from its decoded text.
+     *
+     * @param name Asset name (path without .txt extension)
+     * @param text Complete file contents
+     * @return The decoded asset
+     */
+    public static Asset fromText(String name, String text) {
+        List<String> split = new ArrayList<>();
+        int start = 0;
+        int length = text.length();
+        // Same line semantics as BufferedReader.readLine: \n, \r or \r\n terminate a line
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                split.add(text.substring(start, i));
+                if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+        if (start < length) {
+            split.add(text.substring(start));
+        }
+
+        return new Asset(name, split.toArray(new String[0]));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLineCount() {
+        return lines.length;
+    }
+
+    public String getLine(int index) {
+        return lines[index];
+    }
+
+    /**
+     * Estimates the heap held by this asset, for cache accounting.
+     *
+     * @return Approximate size in bytes
+     */
+    public long getFootprint() {
+        long chars = 0;
+        for (String line : lines) {
+            chars += line.length();
+        }
+        return chars * 2 + lines.length * 48L;
+    }
+}
@@ -0,0 +1,362 @@
+package com.worldexecute;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.stream.Stream;
+
+/**
+ * AssetBundle - Single indexed, memory-mapped file holding every text asset.
+ * The build packs all .txt assets into one bundle so that runtime lookups
+ * cost a binary search over a mapped index instead of a jar entry lookup and
+ * inflate per file.
+ *
+ * Layout (big-endian):
+ *   header   "WXAB", version, entry count
+ *   index    per entry: name hash, name offset, name length, data offset, data length, line count
+ *            (sorted by hash, then name)
+ *   names    UTF-8 asset names, e.g. "textFiles/getError"
+ *   payload  UTF-8 file contents
+ *
+ * A jar cannot be mapped into, so when running from the jar the bundle is
+ * extracted once into the cache directory (see PcmCache.directory) under the
+ * CRC and size the jar records for it. Later starts find that copy by reading
+ * the jar's directory alone and map it without inflating anything. The shaded
+ * jar ships only the bundle, not the loose text files.
+ *
+ * Features:
+ * - Build step entry point (see main) wired into the Maven build
+ * - Zero-copy slices of the mapped file served by asset name
+ * - Extracted copy reused across runs from the jar, published atomically
+ * - Transparent fallback: callers use loose files when no bundle is present
+ */
+public class AssetBundle {
+
+    public static final String RESOURCE_NAME = "assets.bundle";
+
+    private static final int MAGIC = 0x57584142; // "WXAB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int ENTRY_BYTES = 24;
+
+    private static volatile AssetBundle shared;
+    private static volatile boolean sharedResolved;
+
+    private final ByteBuffer data;
+    private final int count;
+
+    private AssetBundle(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.remaining() < HEADER_BYTES || data.getInt(0) != MAGIC) {
+            throw new IOException("Not an asset bundle");
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IOException("Unsupported asset bundle version " + data.getInt(4));
+        }
+        this.count = data.getInt(8);
+    }
+
+    /**
+     * Gets the bundle packed into the classpath by the build, mapping it on first use.
+     *
+     * @return The bundle, or null if the application was not built with one
+     */
+    public static AssetBundle shared() {
+        if (!sharedResolved) {
+            synchronized (AssetBundle.class) {
+                if (!sharedResolved) {
+                    shared = openResource(RESOURCE_NAME);
+                    sharedResolved = true;
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Memory-maps a bundle file.
+     *
+     * @param file Path of the bundle
+     * @return The opened bundle
+     * @throws IOException If the file cannot be mapped or is not a bundle
+     */
+    public static AssetBundle open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new AssetBundle(mapped);
+        }
+    }
+
+    /**
+     * Gets the UTF-8 contents of an asset without copying.
+     *
+     * @param name Asset name without extension, e.g. "textFiles/getError"
+     * @return Read-only slice of the mapped bundle, or null if absent
+     */
+    public ByteBuffer slice(String name) {
+        int entry = find(name);
+        if (entry < 0) {
+            return null;
+        }
+        ByteBuffer view = data.duplicate();
+        int offset = data.getInt(entry + 12);
+        view.limit(offset + data.getInt(entry + 16)).position(offset);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Binary-searches the index.
+     *
+     * @return Byte offset of the matching index entry, or -1
+     */
+    private int find(String name) {
+        byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(key);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = HEADER_BYTES + mid * ENTRY_BYTES;
+            int cmp = Integer.compare(data.getInt(entry), hash);
+            if (cmp == 0) {
+                cmp = compareName(data.getInt(entry + 4), data.getInt(entry + 8), key);
+            }
+            if (cmp == 0) {
+                return entry;
+            } else if (cmp < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    private int compareName(int offset, int length, byte[] key) {
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(data.get(offset + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    /**
+     * FNV-1a hash of an asset name.
+     */
+    private static int hash(byte[] name) {
+        int hash = 0x811C9DC5;
+        for (byte b : name) {
+            hash ^= b & 0xFF;
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+
+    private static AssetBundle openResource(String resourceName) {
+        URL url = AssetBundle.class.getClassLoader().getResource(resourceName);
+        if (url == null) {
+            return null;
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                return open(Paths.get(url.toURI()));
+            }
+            URLConnection connection = url.openConnection();
+            if (connection instanceof JarURLConnection) {
+                try {
+                    return open(extracted((JarURLConnection) connection));
+                } catch (IOException e) {
+                    System.err.println("Could not cache asset bundle, reading it into memory: " + e.getMessage());
+                }
+            }
+            try (InputStream inputStream = url.openStream()) {
+                return new AssetBundle(ByteBuffer.wrap(inputStream.readAllBytes()).asReadOnlyBuffer());
+            }
+        } catch (IOException | URISyntaxException e) {
+            System.err.println("Asset bundle unavailable, using loose files: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Finds the extracted copy of a bundle inside a jar, extracting it on first use.
+     * The copy is named after the CRC-32 and size from the jar's directory, so a
+     * rebuilt jar gets a fresh copy and an unchanged one costs no inflating.
+     *
+     * @return Path of the complete copy
+     */
+    private static Path extracted(JarURLConnection connection) throws IOException {
+        JarEntry entry = connection.getJarEntry();
+        Path dir = PcmCache.directory();
+        Path target = dir.resolve(String.format("assets-%08x-%d.bundle", entry.getCrc(), entry.getSize()));
+        if (Files.isRegularFile(target) && Files.size(target) == entry.getSize()) {
+            return target;
+        }
+        Files.createDirectories(dir);
+        // A killed run leaves at most a .part file, never a truncated bundle under the real name
+        Path temp = Files.createTempFile(dir, "assets-", ".part");
+        try {
+            try (InputStream inputStream = connection.getInputStream()) {
+                Files.copy(inputStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return target;
+    }
+
+    /**
+     * Build step: packs every .txt file under the given directories into a bundle.
+     *
+     * Usage: AssetBundle &lt;resource root&gt; &lt;output file&gt; [directory...]
+     * Directories are relative to the resource root and default to "textFiles".
+     *
+     * @param args Command line arguments
+     * @throws IOException If reading an asset or writing the bundle fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: AssetBundle <resource root> <output file> [directory...]");
+            System.exit(1);
+        }
+        Path root = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        List<String> directories = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            directories.add(args[i]);
+        }
+        if (directories.isEmpty()) {
+            directories.add("textFiles");
+        }
+
+        List<Path> files = new ArrayList<>();
+        for (String directory : directories) {
+            Path dir = root.resolve(directory);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> walk = Files.walk(dir)) {
+                walk.filter(p -> Files.isRegularFile(p) && p.getFileName().toString().endsWith(".txt"))
+                    .forEach(files::add);
+            }
+        }
+
+        int written = write(root, files, output);
+        System.out.println("Packed " + written + " assets into " + output);
+    }
+
+    /**
+     * Writes a bundle containing the given files.
+     *
+     * @param root Directory asset names are relative to
+     * @param files Files to pack
+     * @param output Bundle file to create
+     * @return Number of assets packed
+     * @throws IOException If reading or writing fails
+     */
+    static int write(Path root, List<Path> files, Path output) throws IOException {
+        List<byte[][]> entries = new ArrayList<>(files.size());
+        for (Path file : files) {
+            String relative = root.relativize(file).toString().replace(File.separatorChar, '/');
+            String name = relative.substring(0, relative.length() - ".txt".length());
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            byte[] content = Files.readAllBytes(file);
+            entries.add(new byte[][] {nameBytes, content});
+        }
+        entries.sort(Comparator.<byte[][]>comparingInt(e -> hash(e[0])).thenComparing(e -> e[0], AssetBundle::compareBytes));
+
+        int namesStart = HEADER_BYTES + entries.size() * ENTRY_BYTES;
+        int namesLength = 0;
+        int payloadLength = 0;
+        for (byte[][] entry : entries) {
+            namesLength += entry[0].length;
+            payloadLength += entry[1].length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(namesStart + namesLength + payloadLength);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(entries.size());
+        int nameOffset = namesStart;
+        int dataOffset = namesStart + namesLength;
+        for (byte[][] entry : entries) {
+            buffer.putInt(hash(entry[0]))
+                .putInt(nameOffset).putInt(entry[0].length)
+                .putInt(dataOffset).putInt(entry[1].length)
+                .putInt(countLines(entry[1]));
+            nameOffset += entry[0].length;
+            dataOffset += entry[1].length;
+        }
+        for (byte[][] entry : entries) {
+            buffer.put(entry[0]);
+        }
+        for (byte[][] entry : entries) {
+            buffer.put(entry[1]);
+        }
+
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(output, buffer.array());
+        return entries.size();
+    }
+
+    private static int compareBytes(byte[] a, byte[] b) {
+        int common = Math.min(a.length, b.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(a[i] & 0xFF, b[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    /**
+     * Counts lines with BufferedReader.readLine semantics.
+     */
+    private static int countLines(byte[] content) {
+        int lines = 0;
+        int i = 0;
+        boolean pending = false;
+        while (i < content.length) {
+            byte b = content[i];
+            if (b == '\n' || b == '\r') {
+                lines++;
+                pending = false;
+                if (b == '\r' && i + 1 < content.length && content[i + 1] == '\n') {
+                    i++;
+                }
+            } else {
+                pending = true;
+            }
+            i++;
+        }
+        return pending ? lines + 1 : lines;
+    }
+}
@@ -0,0 +1,162 @@
+package com.worldexecute;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * AssetCache - Bounded in-memory cache of decoded text assets.
+ * Assets are loaded once (in parallel when warmed up front) and then served
+ * from memory, so displaying the same ASCII art ten times costs no I/O.
+ * Assets come from the packed AssetBundle when the build produced one and
+ * from loose classpath files otherwise.
+ *
+ * Features:
+ * - Parallel warm-up of every asset a timeline references
+ * - Immutable decoded line storage (see Asset)
+ * - Memory bound with least-recently-used eviction for large custom asset sets
+ */
+public class AssetCache {
+
+    private static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+
+    private static final long maxBytes = Long.getLong("worldexecute.assetCacheBytes", DEFAULT_MAX_BYTES);
+    private static final Map<String, Asset> assets = new LinkedHashMap<>(32, 0.75f, true);
+    private static long totalBytes;
+    private static long loadCount;
+
+    /**
+     * Gets an asset, loading it synchronously if it is not cached.
+     *
+     * @param fileName The file path (without .txt extension)
+     * @return The asset, or null if it does not exist
+     */
+    public static Asset get(String fileName) {
+        synchronized (assets) {
+            Asset cached = assets.get(fileName);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Asset loaded = load(fileName);
+        if (loaded != null) {
+            put(loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Loads the given assets in parallel and caches them.
+     *
+     * @param fileNames Asset names (without .txt extension)
+     * @return Future completing when every asset has been loaded
+     */
+    public static CompletableFuture<Void> warm(Collection<String> fileNames) {
+        Set<String> missing = new LinkedHashSet<>();
+        synchronized (assets) {
+            for (String fileName : fileNames) {
+                if (!assets.containsKey(fileName)) {
+                    missing.add(fileName);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        int threads = Math.max(1, Math.min(missing.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "asset-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        CompletableFuture<?>[] loads = new CompletableFuture<?>[missing.size()];
+        int count = 0;
+        for (String fileName : missing) {
+            loads[count++] = CompletableFuture.runAsync(() -> get(fileName), executor);
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(loads);
+        all.whenComplete((result, error) -> executor.shutdown());
+        return all;
+    }
+
+    /**
+     * Gets how many times an asset was read from the classpath.
+     * After warm-up this should stay constant for the rest of the show.
+     */
+    public static long getLoadCount() {
+        synchronized (assets) {
+            return loadCount;
+        }
+    }
+
+    /**
+     * Gets the approximate heap currently held by cached assets.
+     */
+    public static long getTotalBytes() {
+        synchronized (assets) {
+            return totalBytes;
+        }
+    }
+
+    private static void put(Asset asset) {
+        synchronized (assets) {
+            Asset previous = assets.put(asset.getName(), asset);
+            if (previous != null) {
+                totalBytes -= previous.getFootprint();
+            }
+            totalBytes += asset.getFootprint();
+            loadCount++;
+
+            // Evict least recently used assets, but never the one just added
+            Iterator<Map.Entry<String, Asset>> iterator = assets.entrySet().iterator();
+            while (totalBytes > maxBytes && assets.size() > 1 && iterator.hasNext()) {
+                Map.Entry<String, Asset> eldest = iterator.next();
+                if (eldest.getValue() == asset) {
+                    continue;
+                }
+                totalBytes -= eldest.getValue().getFootprint();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static Asset load(String fileName) {
+        AssetBundle bundle = AssetBundle.shared();
+        if (bundle != null) {
+            ByteBuffer packed = bundle.slice(fileName);
+            if (packed != null) {
+                return Asset.fromText(fileName, StandardCharsets.UTF_8.decode(packed).toString());
+            }
+        }
+
+        String filePath = fileName + ".txt";
+        try (InputStream inputStream = AssetCache.class.getClassLoader().getResourceAsStream(filePath)) {
+            if (inputStream == null) {
+                return null;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+            byte[] chunk = new byte[4096];
+            int read;
+            while ((read = inputStream.read(chunk)) != -1) {
+                bytes.write(chunk, 0, read);
+            }
+            return Asset.fromText(fileName, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("An error occurred while reading the file: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.worldexecute;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * AudioBufferEvent - Flight recorder event for a chunk written to the audio line.
+ * The duration is how long the write blocked waiting for room in the line.
+ */
+@Name("com.worldexecute.AudioBufferFill")
+@Label("Audio Buffer Fill")
+@Category("World.Execute(Me)")
+final class AudioBufferEvent extends jdk.jfr.Event {
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Line Buffered")
+    @DataAmount
+    long lineBuffered;
+
+    @Label("Underruns")
+    long underruns;
+}
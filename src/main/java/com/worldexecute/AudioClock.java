@@ -0,0 +1,199 @@
+package com.worldexecute;
+
+/**
+ * AudioClock - Show clock that follows the audio playback position.
+ * The player reports, after every write, how many frames it has written and
+ * how many are still queued in the output line; the difference is what the
+ * listener has actually heard. Between reports the position is interpolated
+ * with System.nanoTime(), and each new report nudges the estimate instead of
+ * snapping to it, so the clock stays smooth and never runs backwards.
+ *
+ * Until the first sample plays the clock holds at zero, which absorbs the
+ * audio startup latency. If no audio arrives within the grace period, or the
+ * player gives up, the clock free-runs on the system clock instead.
+ *
+ * Features:
+ * - Position = frames written - frames buffered in the line - configured output latency
+ * - Slewed correction (1/8 of the error per report), snapping only on large jumps
+ * - Startup latency and drift against the wall clock measured for diagnostics
+ * - Holds still while playback is paused
+ */
+public class AudioClock implements ShowClock {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long SNAP_THRESHOLD_NANOS = 50 * NANOS_PER_MILLI;
+    private static final int SLEW_SHIFT = 3;
+
+    private final long startupGraceNanos;
+    private final long outputLatencyNanos;
+
+    private volatile long originNanos = System.nanoTime();
+    private volatile Anchor anchor;
+    private volatile boolean detached;
+    private volatile long lastPosition;
+
+    private long firstAnchorNanos;
+    private long startupLatencyNanos = -1;
+
+    /**
+     * Creates an audio clock with the grace period and extra output latency taken from
+     * -Dworldexecute.audioGraceMillis (default 2000) and -Dworldexecute.audioLatencyMillis (default 0).
+     */
+    public AudioClock() {
+        this(Long.getLong("worldexecute.audioGraceMillis", 2000L),
+            Long.getLong("worldexecute.audioLatencyMillis", 0L));
+    }
+
+    /**
+     * Creates an audio clock.
+     *
+     * @param startupGraceMillis How long to hold at zero waiting for the first sample
+     * @param outputLatencyMillis Latency after the line (driver, device) to subtract from the position
+     */
+    public AudioClock(long startupGraceMillis, long outputLatencyMillis) {
+        this.startupGraceNanos = startupGraceMillis * NANOS_PER_MILLI;
+        this.outputLatencyNanos = outputLatencyMillis * NANOS_PER_MILLI;
+    }
+
+    /**
+     * Restarts the clock at zero. A clock whose player already gave up (for
+     * example while it was being prepared) free-runs from the start.
+     */
+    @Override
+    public synchronized void start() {
+        originNanos = System.nanoTime();
+        anchor = null;
+        lastPosition = 0;
+        startupLatencyNanos = -1;
+        if (detached) {
+            anchor(0, originNanos);
+        }
+    }
+
+    @Override
+    public long positionNanos() {
+        long now = System.nanoTime();
+        Anchor current = anchor;
+        if (current == null) {
+            if (now - originNanos < startupGraceNanos) {
+                return 0;
+            }
+            synchronized (this) {
+                if (anchor == null) {
+                    System.err.println("No audio after " + startupGraceNanos / NANOS_PER_MILLI
+                        + " ms, following the system clock");
+                    anchor(0, now);
+                }
+                current = anchor;
+            }
+        }
+        long position = current.positionAt(now);
+        // Readers on several threads may race here; the worst case is one stale but still valid value
+        if (position < lastPosition) {
+            return lastPosition;
+        }
+        lastPosition = position;
+        return position;
+    }
+
+    /**
+     * Reports playback progress; called by the player after every write to the line.
+     *
+     * @param framesWritten Frames handed to the line so far
+     * @param framesBuffered Frames still queued in the line
+     * @param frameRate Frames per second
+     */
+    public synchronized void update(long framesWritten, long framesBuffered, float frameRate) {
+        if (detached) {
+            return;
+        }
+        long now = System.nanoTime();
+        long heard = (long) ((framesWritten - framesBuffered) * NANOS_PER_SECOND / frameRate) - outputLatencyNanos;
+        if (heard <= 0) {
+            return;
+        }
+        if (anchor == null) {
+            anchor(heard, now);
+            startupLatencyNanos = now - originNanos - heard;
+            return;
+        }
+        long predicted = anchor.positionAt(now);
+        long error = heard - predicted;
+        anchor = new Anchor(Math.abs(error) > SNAP_THRESHOLD_NANOS ? heard : predicted + (error >> SLEW_SHIFT), now);
+    }
+
+    /**
+     * Holds the clock at its current position until the next report, e.g. while
+     * the player is paused and nothing is being heard.
+     */
+    public synchronized void hold() {
+        if (anchor != null && !detached) {
+            long now = System.nanoTime();
+            anchor = new Anchor(anchor.positionAt(now), now, true);
+        }
+    }
+
+    /**
+     * Stops following the audio (end of track or playback failure).
+     * The clock keeps running from its current position on the system clock.
+     */
+    public synchronized void detach() {
+        if (anchor == null) {
+            anchor(0, System.nanoTime());
+        }
+        detached = true;
+    }
+
+    /**
+     * Gets the time between start() and the first audible sample.
+     *
+     * @return Latency in nanoseconds, or -1 if audio never started
+     */
+    public synchronized long getStartupLatencyNanos() {
+        return startupLatencyNanos;
+    }
+
+    /**
+     * Gets how far the audio position has drifted from the wall clock since the first sample.
+     * Positive means the audio runs ahead of the system clock.
+     *
+     * @return Drift in nanoseconds
+     */
+    public synchronized long getDriftNanos() {
+        if (anchor == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        return anchor.positionAt(now) - (now - firstAnchorNanos);
+    }
+
+    private void anchor(long position, long now) {
+        firstAnchorNanos = now - position;
+        anchor = new Anchor(position, now);
+    }
+
+    /**
+     * A position observed at a System.nanoTime() instant, published as one unit.
+     */
+    private static final class Anchor {
+
+        private final long position;
+        private final long nanos;
+        private final boolean held;
+
+        private Anchor(long position, long nanos) {
+            this(position, nanos, false);
+        }
+
+        private Anchor(long position, long nanos, boolean held) {
+            this.position = position;
+            this.nanos = nanos;
+            this.held = held;
+        }
+
+        private long positionAt(long now) {
+            return held ? position : position + (now - nanos);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.worldexecute;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AudioRingBuffer - Bounded byte ring between an audio feeder and the output line.
+ * One thread writes decoded PCM, another drains it into the sound card.
+ * Memory use is fixed at the capacity given up front, however long the track.
+ *
+ * Features:
+ * - Blocking write when full (back-pressure on the feeder)
+ * - Blocking read that distinguishes "no data yet" from "end of stream"
+ * - Underrun counting when the reader finds the buffer empty mid-stream
+ */
+public class AudioRingBuffer {
+
+    private final byte[] buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private int readIndex;
+    private int size;
+    private boolean endOfStream;
+    private boolean closed;
+    private long underruns;
+    private long totalWritten;
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param capacity Capacity in bytes
+     */
+    public AudioRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.buffer = new byte[capacity];
+    }
+
+    /**
+     * Writes all given bytes, waiting for space as needed.
+     *
+     * @return false if the buffer was closed before everything was written
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean write(byte[] data, int offset, int length) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (length > 0) {
+                while (size == buffer.length && !closed) {
+                    notFull.await();
+                }
+                if (closed) {
+                    return false;
+                }
+                int writeIndex = (readIndex + size) % buffer.length;
+                int chunk = Math.min(length, Math.min(buffer.length - size, buffer.length - writeIndex));
+                System.arraycopy(data, offset, buffer, writeIndex, chunk);
+                size += chunk;
+                totalWritten += chunk;
+                offset += chunk;
+                length -= chunk;
+                notEmpty.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads up to length bytes, waiting until at least one is available.
+     * If the buffer is empty before the end of the stream, that is counted as an underrun.
+     *
+     * @return Number of bytes read, or -1 at end of stream
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public int read(byte[] data, int offset, int length) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (size == 0 && !endOfStream && !closed) {
+                underruns++;
+                while (size == 0 && !endOfStream && !closed) {
+                    notEmpty.await();
+                }
+            }
+            if (size == 0) {
+                return -1;
+            }
+            int chunk = Math.min(length, Math.min(size, buffer.length - readIndex));
+            System.arraycopy(buffer, readIndex, data, offset, chunk);
+            readIndex = (readIndex + chunk) % buffer.length;
+            size -= chunk;
+            notFull.signal();
+            return chunk;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the buffer holds at least the given number of bytes or the stream ended.
+     * Used to pre-fill before starting playback.
+     *
+     * @return true if the level was reached or the stream ended in time
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean awaitLevel(int bytes, long timeoutMillis) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lockInterruptibly();
+        try {
+            int target = Math.min(bytes, buffer.length);
+            while (size < target && !endOfStream && !closed) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the end of the stream; readers drain what is left and then get -1.
+     */
+    public void finish() {
+        lock.lock();
+        try {
+            endOfStream = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discards the contents and wakes both sides, e.g. when playback is stopped.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            size = 0;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Gets how many times the reader found the buffer empty before the end of the stream.
+     */
+    public long getUnderruns() {
+        lock.lock();
+        try {
+            return underruns;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the total number of bytes ever written.
+     */
+    public long getTotalWritten() {
+        lock.lock();
+        try {
+            return totalWritten;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package com.worldexecute;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * BroadcastServer - Telnet-style TCP endpoint that shows one run of the show to many viewers.
+ * The show renders every frame once; the frames are kept in a short shared
+ * history and a single selector thread streams them to each connection at its
+ * own pace. Each viewer first has to answer the password prompt, exactly as
+ * at the local console.
+ *
+ * A viewer that falls more than MAX_LAG_FRAMES behind (or out of the history)
+ * skips the frames it missed and is resynchronised with a keyframe, a full
+ * repaint of the current screen, so a slow client never holds up the others.
+ * A client that makes no progress at all for STALL_TIMEOUT_MILLIS is dropped,
+ * and so is one still at the password prompt after HANDSHAKE_TIMEOUT_MILLIS,
+ * so idle connections cannot pile up.
+ *
+ * The server listens on the loopback interface unless it is given a host to
+ * bind to, so a show is only reachable from other machines when asked for.
+ *
+ * Features:
+ * - One selector thread, no per-client threads (thousands of idle connections)
+ * - Per-connection password handshake with telnet option bytes ignored and a time limit
+ * - Shared frame history indexed by sequence number; per-client lag bound with skip-and-resync
+ * - Viewers may join mid-show
+ */
+public class BroadcastServer {
+
+    /** Password a viewer must enter, as at the local console. */
+    public static final String PASSWORD = "run world.exec";
+
+    private static final int HISTORY_FRAMES = 1024;
+    private static final int MAX_LAG_FRAMES = 128;
+    private static final long STALL_TIMEOUT_MILLIS = 10_000;
+    private static final long HANDSHAKE_TIMEOUT_MILLIS = 60_000;
+    private static final long FINISH_TIMEOUT_MILLIS = 2_000;
+    private static final int MAX_INPUT = 64;
+    private static final int BACKLOG = 4096;
+
+    private static final int IAC = 255;
+    private static final int SB = 250;
+    private static final int SE = 240;
+    private static final int WILL = 251;
+
+    private static final int STATE_HANDSHAKE = 0;
+    private static final int STATE_SYNCING = 1;
+    private static final int STATE_LIVE = 2;
+
+    private static final byte[] DENIED = "\r\nAccess denied.\r\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ENDED = "\r\nThe show has ended.\r\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final SelectionKey acceptKey;
+    private final byte[] prompt;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(4096);
+
+    private final ConcurrentLinkedQueue<Frame> inbox = new ConcurrentLinkedQueue<>();
+    private final Frame[] history = new Frame[HISTORY_FRAMES];
+    private final List<Client> clients = new ArrayList<>();
+    private final CountDownLatch firstViewer = new CountDownLatch(1);
+
+    private volatile boolean keyframeWanted;
+    private volatile boolean finishing;
+    private volatile boolean running = true;
+    private long nextSeq;
+    private long finishDeadline;
+    private long lastStallCheck;
+    private volatile long handshakeTimeoutMillis = HANDSHAKE_TIMEOUT_MILLIS;
+    private Thread thread;
+
+    private long frameCount;
+    private long resyncCount;
+    private long droppedCount;
+
+    /**
+     * Opens a listening socket on the loopback interface.
+     *
+     * @param port TCP port to listen on (0 picks a free port)
+     * @param prompt Bytes sent to every new connection before the password is read
+     */
+    public BroadcastServer(int port, byte[] prompt) throws IOException {
+        this(null, port, prompt);
+    }
+
+    /**
+     * Opens the listening socket.
+     *
+     * @param host Host name or address to bind to ("0.0.0.0" for all interfaces), or null for loopback
+     * @param port TCP port to listen on (0 picks a free port)
+     * @param prompt Bytes sent to every new connection before the password is read
+     */
+    public BroadcastServer(String host, int port, byte[] prompt) throws IOException {
+        this.prompt = prompt.clone();
+        InetAddress address = host == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(host);
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(address, port), BACKLOG);
+        serverChannel.configureBlocking(false);
+        this.acceptKey = serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Starts the selector thread.
+     */
+    public void start() {
+        thread = new Thread(this::run, "broadcast-server");
+        thread.start();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Sets how long a connection may stay at the password prompt; for tests.
+     */
+    void setHandshakeTimeoutMillis(long millis) {
+        handshakeTimeoutMillis = millis;
+    }
+
+    /**
+     * Waits until the first viewer has entered the password.
+     */
+    public void awaitFirstViewer() throws InterruptedException {
+        firstViewer.await();
+    }
+
+    /**
+     * Publishes a rendered frame; called by the show thread once per flush.
+     *
+     * @param data Diff frame bytes; must not be modified afterwards
+     * @param keyframe Full repaint of the screen after this frame, or null
+     */
+    public void publish(byte[] data, byte[] keyframe) {
+        if (keyframe != null) {
+            keyframeWanted = false;
+        }
+        inbox.add(new Frame(data, keyframe));
+        selector.wakeup();
+    }
+
+    /**
+     * Checks whether a viewer is waiting for a keyframe; the show thread then attaches one to its next frame.
+     */
+    public boolean isKeyframeWanted() {
+        return keyframeWanted;
+    }
+
+    /**
+     * Lets every viewer receive what has been published, then closes all connections.
+     * Blocks until the server has stopped.
+     */
+    public void finish() {
+        finishing = true;
+        selector.wakeup();
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of open connections (including those at the password prompt).
+     */
+    public synchronized int getClientCount() {
+        return clients.size();
+    }
+
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Gets how many times a viewer skipped frames and was resynchronised.
+     */
+    public synchronized long getResyncCount() {
+        return resyncCount;
+    }
+
+    /**
+     * Gets how many connections were closed for not reading, or for not entering a password in time.
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select(250);
+                drainInbox();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Client client = (Client) key.attachment();
+                    if (key.isReadable()) {
+                        read(client);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        write(client);
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                if (now - lastStallCheck >= 1000) {
+                    lastStallCheck = now;
+                    dropStalled(now);
+                    acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+                }
+                if (finishing) {
+                    if (finishDeadline == 0) {
+                        finishDeadline = now + FINISH_TIMEOUT_MILLIS;
+                        closeWaitingViewers();
+                    }
+                    // Frames published just before finish() may still be waiting in the inbox
+                    if ((inbox.isEmpty() && allDrained()) || now >= finishDeadline) {
+                        running = false;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Broadcast server failed: " + e.getMessage());
+        } finally {
+            shutdown();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = acceptNext()) != null) {
+            if (finishing) {
+                channel.close();
+                continue;
+            }
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Client client = new Client(channel);
+            client.key = channel.register(selector, SelectionKey.OP_READ | SelectionKey.OP_WRITE, client);
+            client.pending = prompt;
+            synchronized (this) {
+                clients.add(client);
+            }
+        }
+    }
+
+    /**
+     * Accepts a pending connection. Running out of file descriptors leaves the
+     * connection in the backlog rather than stopping the server: accepting
+     * pauses until the next stall check, which may have closed idle ones.
+     *
+     * @return The connection, or null if none can be accepted now
+     */
+    private SocketChannel acceptNext() {
+        try {
+            return serverChannel.accept();
+        } catch (IOException e) {
+            System.err.println("Could not accept viewer: " + e.getMessage());
+            acceptKey.interestOps(0);
+            return null;
+        }
+    }
+
+    /**
+     * Moves published frames into the history and hands keyframes to waiting viewers.
+     */
+    private void drainInbox() {
+        Frame frame;
+        boolean added = false;
+        while ((frame = inbox.poll()) != null) {
+            frame.seq = nextSeq++;
+            history[(int) (frame.seq % HISTORY_FRAMES)] = frame;
+            added = true;
+            synchronized (this) {
+                frameCount++;
+            }
+            if (frame.keyframe != null) {
+                for (Client client : clients) {
+                    if (client.state == STATE_SYNCING && client.pending == null) {
+                        client.state = STATE_LIVE;
+                        client.nextSeq = frame.seq + 1;
+                        client.pending = frame.keyframe;
+                        client.offset = 0;
+                    }
+                }
+            }
+        }
+        if (!added) {
+            return;
+        }
+        for (Client client : clients) {
+            if (client.state != STATE_HANDSHAKE && client.key.isValid()) {
+                client.key.interestOps(client.key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    private void read(Client client) {
+        readBuffer.clear();
+        int read;
+        try {
+            read = client.channel.read(readBuffer);
+        } catch (IOException e) {
+            close(client);
+            return;
+        }
+        if (read < 0) {
+            close(client);
+            return;
+        }
+        if (client.state != STATE_HANDSHAKE) {
+            // Viewers have nothing more to say; discard keystrokes
+            return;
+        }
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            int b = readBuffer.get() & 0xFF;
+            if (client.skipTelnet(b)) {
+                continue;
+            }
+            if (b == '\n') {
+                checkPassword(client);
+                return;
+            }
+            if (b >= ' ' && b < 0x7F && client.inputLength < MAX_INPUT) {
+                client.input[client.inputLength++] = (byte) b;
+            }
+        }
+    }
+
+    private void checkPassword(Client client) {
+        String entered = new String(client.input, 0, client.inputLength, StandardCharsets.US_ASCII).trim();
+        if (!entered.equals(PASSWORD)) {
+            client.pending = DENIED;
+            client.offset = 0;
+            client.closeAfterWrite = true;
+            client.key.interestOps(SelectionKey.OP_WRITE);
+            return;
+        }
+        client.input = null;
+        client.state = STATE_SYNCING;
+        client.lastProgress = System.currentTimeMillis();
+        keyframeWanted = true;
+        firstViewer.countDown();
+    }
+
+    private void write(Client client) {
+        try {
+            while (true) {
+                if (client.pending == null && !advance(client)) {
+                    client.key.interestOps(client.key.interestOps() & ~SelectionKey.OP_WRITE);
+                    return;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(client.pending, client.offset, client.pending.length - client.offset);
+                int written = client.channel.write(buffer);
+                if (written > 0) {
+                    client.lastProgress = System.currentTimeMillis();
+                }
+                client.offset += written;
+                if (client.offset < client.pending.length) {
+                    return;
+                }
+                client.pending = null;
+                client.offset = 0;
+                if (client.closeAfterWrite) {
+                    close(client);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            close(client);
+        }
+    }
+
+    /**
+     * Picks the next frame for a live viewer, resynchronising it if it fell too far behind.
+     *
+     * @return true if there is something to send
+     */
+    private boolean advance(Client client) {
+        if (client.state == STATE_SYNCING) {
+            // Ask again in case the last keyframe went by while a frame was still being sent
+            keyframeWanted = true;
+            return false;
+        }
+        if (client.state != STATE_LIVE || nextSeq == 0) {
+            return false;
+        }
+        // The history holds the last HISTORY_FRAMES frames published, slot seq % HISTORY_FRAMES
+        long first = Math.max(0, nextSeq - HISTORY_FRAMES);
+        long last = nextSeq - 1;
+        if (client.nextSeq > last) {
+            return false;
+        }
+        if (client.nextSeq < first || last - client.nextSeq >= MAX_LAG_FRAMES) {
+            client.state = STATE_SYNCING;
+            keyframeWanted = true;
+            synchronized (this) {
+                resyncCount++;
+            }
+            return false;
+        }
+        Frame frame = history[(int) (client.nextSeq % HISTORY_FRAMES)];
+        client.pending = frame.data;
+        client.offset = 0;
+        client.nextSeq++;
+        return true;
+    }
+
+    private void dropStalled(long now) {
+        for (Client client : new ArrayList<>(clients)) {
+            boolean stalled = client.state == STATE_HANDSHAKE
+                ? now - client.connectedAt > handshakeTimeoutMillis
+                : client.pending != null && now - client.lastProgress > STALL_TIMEOUT_MILLIS;
+            if (stalled) {
+                synchronized (this) {
+                    droppedCount++;
+                }
+                close(client);
+            }
+        }
+    }
+
+    private void closeWaitingViewers() {
+        for (Client client : clients) {
+            if (client.state == STATE_HANDSHAKE) {
+                client.pending = ENDED;
+                client.offset = 0;
+                client.closeAfterWrite = true;
+                if (client.key.isValid()) {
+                    client.key.interestOps(SelectionKey.OP_WRITE);
+                }
+            }
+        }
+    }
+
+    private boolean allDrained() {
+        for (Client client : clients) {
+            if (client.pending != null || (client.state == STATE_LIVE && client.nextSeq < nextSeq)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void close(Client client) {
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+        synchronized (this) {
+            clients.remove(client);
+        }
+    }
+
+    private void shutdown() {
+        for (Client client : new ArrayList<>(clients)) {
+            close(client);
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Error closing broadcast server: " + e.getMessage());
+        }
+        firstViewer.countDown();
+    }
+
+    /**
+     * One published frame with its sequence number in the show.
+     */
+    private static final class Frame {
+
+        private final byte[] data;
+        private final byte[] keyframe;
+        private long seq;
+
+        private Frame(byte[] data, byte[] keyframe) {
+            this.data = data;
+            this.keyframe = keyframe;
+        }
+    }
+
+    /**
+     * Connection state, only touched by the selector thread.
+     */
+    private static final class Client {
+
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private int state = STATE_HANDSHAKE;
+
+        private byte[] input = new byte[MAX_INPUT];
+        private int inputLength;
+        private int telnetState;
+
+        private byte[] pending;
+        private int offset;
+        private long nextSeq;
+        private boolean closeAfterWrite;
+        private final long connectedAt = System.currentTimeMillis();
+        private long lastProgress = connectedAt;
+
+        private Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Filters telnet command sequences (IAC ...) out of the input.
+         *
+         * @return true if the byte belongs to a telnet command
+         */
+        private boolean skipTelnet(int b) {
+            switch (telnetState) {
+                case 0:
+                    if (b == IAC) {
+                        telnetState = 1;
+                        return true;
+                    }
+                    return false;
+                case 1:
+                    if (b == SB) {
+                        telnetState = 3;
+                    } else if (b >= WILL && b < IAC) {
+                        telnetState = 2;
+                    } else {
+                        telnetState = 0;
+                    }
+                    return true;
+                case 2:
+                    telnetState = 0;
+                    return true;
+                case 3:
+                    if (b == IAC) {
+                        telnetState = 4;
+                    }
+                    return true;
+                default:
+                    telnetState = b == SE ? 0 : 3;
+                    return true;
+            }
+        }
+    }
+}
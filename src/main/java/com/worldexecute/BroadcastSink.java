@@ -0,0 +1,63 @@
+package com.worldexecute;
+
+import java.util.Arrays;
+
+/**
+ * BroadcastSink - Output sink that hands each rendered frame to a BroadcastServer.
+ * Frames are collected until the renderer flushes and then published as one
+ * immutable byte array. When a viewer is waiting to (re)join, a keyframe of
+ * the shared screen is rendered alongside the frame.
+ */
+public class BroadcastSink implements OutputSink {
+
+    private final BroadcastServer server;
+    private final BufferSink keyframeBuffer = new BufferSink();
+    private final TerminalRenderer keyframeRenderer = new TerminalRenderer(keyframeBuffer);
+
+    private byte[] buffer = new byte[8192];
+    private int size;
+
+    /**
+     * Creates a sink publishing to a server.
+     *
+     * @param server Server that fans frames out to viewers
+     */
+    public BroadcastSink(BroadcastServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) {
+        if (size + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+        }
+        System.arraycopy(data, offset, buffer, size, length);
+        size += length;
+    }
+
+    /**
+     * Publishes the frame. Runs on the show thread inside Terminal.flush(), so the
+     * shared screen and renderer are consistent with the frame just written.
+     */
+    @Override
+    public void flush() {
+        if (size == 0) {
+            return;
+        }
+        byte[] frame = Arrays.copyOf(buffer, size);
+        size = 0;
+
+        byte[] keyframe = null;
+        if (server.isKeyframeWanted()) {
+            keyframeBuffer.reset();
+            keyframeRenderer.keyframe(Terminal.getDisplayedScreen(), Terminal.getRenderer().getTermColor());
+            keyframe = keyframeBuffer.toByteArray();
+        }
+        server.publish(frame, keyframe);
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,66 @@
+package com.worldexecute;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * BufferSink - Output sink that keeps everything in memory.
+ * Used to compare a run's output against a known-good capture.
+ */
+public class BufferSink implements OutputSink {
+
+    private byte[] buffer = new byte[64 * 1024];
+    private int size;
+    private long flushes;
+
+    @Override
+    public void write(byte[] data, int offset, int length) {
+        if (size + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+        }
+        System.arraycopy(data, offset, buffer, size, length);
+        size += length;
+    }
+
+    @Override
+    public void flush() {
+        flushes++;
+    }
+
+    /**
+     * Gets the number of bytes captured.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets how many frames were flushed.
+     */
+    public long getFlushCount() {
+        return flushes;
+    }
+
+    /**
+     * Copies the captured bytes.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Decodes the captured bytes as UTF-8.
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Discards everything captured so far.
+     */
+    public void reset() {
+        size = 0;
+        flushes = 0;
+    }
+}
@@ -0,0 +1,343 @@
+package com.worldexecute;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * CastPlayer - Replays an asciicast v2 recording (see CastRecorder).
+ * The file is memory-mapped and indexed once: the timestamp and file offset of
+ * every output event go into two parallel arrays, so seeking is a binary
+ * search. Playback only unescapes the recorded bytes and hands them to a sink
+ * on the timeline scheduler; no effect is computed again.
+ *
+ * Seeking to the middle of a recording feeds the skipped events into a
+ * Screen model without output and then draws one full keyframe, after which
+ * the recorded diffs continue to apply.
+ *
+ * Features:
+ * - Memory-mapped, indexed on open (a few bytes of index per frame)
+ * - Sub-millisecond timing through TimelineScheduler.awaitOffsetNanos
+ * - Seek to any show position with a single repaint
+ */
+public class CastPlayer {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final MappedByteBuffer data;
+    private final int width;
+    private final int height;
+
+    private long[] times = new long[1024];
+    private int[] offsets = new int[1024];
+    private int count;
+
+    private byte[] decoded = new byte[8192];
+    private int decodedLength;
+
+    /**
+     * Opens and indexes a recording.
+     *
+     * @param path The .cast file
+     * @throws IOException If the file cannot be read, is too large to map or is not asciicast v2
+     */
+    public CastPlayer(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Recording too large to map: " + channel.size() + " bytes");
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int headerEnd = lineEnd(0);
+        String header = new String(slice(0, headerEnd), StandardCharsets.UTF_8);
+        if (headerValue(header, "version") != 2) {
+            throw new IOException("Not an asciicast v2 recording: " + path);
+        }
+        width = headerValue(header, "width");
+        height = headerValue(header, "height");
+        if (width <= 0 || height <= 0) {
+            throw new IOException("Recording has no terminal size: " + path);
+        }
+        buildIndex(headerEnd + 1);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the number of output events in the recording.
+     */
+    public int getEventCount() {
+        return count;
+    }
+
+    /**
+     * Gets the timestamp of the last event.
+     *
+     * @return Duration in nanoseconds
+     */
+    public long getDurationNanos() {
+        return count == 0 ? 0 : times[count - 1];
+    }
+
+    /**
+     * Finds the first event at or after a show position.
+     *
+     * @param positionNanos Show position in nanoseconds
+     * @return Event index, or getEventCount() if the position is past the end
+     */
+    public int indexOf(long positionNanos) {
+        int index = Arrays.binarySearch(times, 0, count, positionNanos);
+        if (index < 0) {
+            return -index - 1;
+        }
+        // Several frames can share a timestamp; start with the first of them
+        while (index > 0 && times[index - 1] == positionNanos) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Plays the recording from a show position to the end.
+     *
+     * @param sink Destination for the replayed frames
+     * @param scheduler Scheduler frames are timed on; started by this call
+     * @param fromNanos Show position to start at (0 = beginning)
+     */
+    public void play(OutputSink sink, TimelineScheduler scheduler, long fromNanos) {
+        int first = fromNanos > 0 ? seek(sink, fromNanos) : 0;
+        scheduler.start();
+        try {
+            for (int i = first; i < count; i++) {
+                scheduler.awaitOffsetNanos(times[i] - fromNanos);
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                decode(i);
+                sink.write(decoded, 0, decodedLength);
+                sink.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing replay: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the screen at a position from the skipped events and draws it in one frame.
+     *
+     * @return Index of the first event still to play
+     */
+    private int seek(OutputSink sink, long positionNanos) {
+        int first = indexOf(positionNanos);
+        Screen screen = new Screen(width, height);
+        for (int i = 0; i < first; i++) {
+            decode(i);
+            screen.print(new String(decoded, 0, decodedLength, StandardCharsets.UTF_8));
+        }
+        // Every color change in a recording comes from the renderer, so the screen's
+        // current color is the one the following diffs expect the terminal to be in
+        new TerminalRenderer(sink).keyframe(screen, screen.getColor());
+        return first;
+    }
+
+    /**
+     * Records the timestamp and offset of every "o" event line.
+     */
+    private void buildIndex(int start) throws IOException {
+        int limit = data.limit();
+        int pos = start;
+        while (pos < limit) {
+            int end = lineEnd(pos);
+            if (end > pos && data.get(pos) == '[') {
+                int comma = find((byte) ',', pos, end);
+                int quote = comma < 0 ? -1 : find((byte) '"', comma, end);
+                if (comma < 0 || quote < 0 || quote + 2 >= end) {
+                    throw new IOException("Malformed event at byte " + pos);
+                }
+                if (data.get(quote + 1) == 'o' && data.get(quote + 2) == '"') {
+                    add(parseNanos(pos + 1, comma), pos);
+                }
+            }
+            pos = end + 1;
+        }
+    }
+
+    private void add(long nanos, int offset) {
+        if (count == times.length) {
+            times = Arrays.copyOf(times, count * 2);
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        times[count] = nanos;
+        offsets[count] = offset;
+        count++;
+    }
+
+    /**
+     * Parses a JSON number of seconds (e.g. 12.345678) into nanoseconds.
+     */
+    private long parseNanos(int start, int end) throws IOException {
+        long whole = 0;
+        long fraction = 0;
+        long scale = NANOS_PER_SECOND;
+        boolean inFraction = false;
+        for (int i = start; i < end; i++) {
+            byte b = data.get(i);
+            if (b >= '0' && b <= '9') {
+                if (!inFraction) {
+                    whole = whole * 10 + (b - '0');
+                } else if (scale > 1) {
+                    scale /= 10;
+                    fraction += (b - '0') * scale;
+                }
+            } else if (b == '.') {
+                inFraction = true;
+            } else if (b != ' ') {
+                throw new IOException("Malformed timestamp at byte " + start);
+            }
+        }
+        return whole * NANOS_PER_SECOND + fraction;
+    }
+
+    /**
+     * Unescapes the data string of an event into the decode buffer as UTF-8.
+     */
+    private void decode(int event) {
+        int pos = offsets[event];
+        int end = lineEnd(pos);
+        // Skip [time, "o", and land after the opening quote of the data
+        pos = find((byte) '"', pos, end) + 3;
+        pos = find((byte) '"', pos, end) + 1;
+        decodedLength = 0;
+        ensureDecodedCapacity(end - pos);
+        while (pos < end) {
+            byte b = data.get(pos++);
+            if (b == '"') {
+                break;
+            }
+            if (b != '\\') {
+                decoded[decodedLength++] = b;
+                continue;
+            }
+            byte escape = data.get(pos++);
+            switch (escape) {
+                case 'n':
+                    decoded[decodedLength++] = '\n';
+                    break;
+                case 'r':
+                    decoded[decodedLength++] = '\r';
+                    break;
+                case 't':
+                    decoded[decodedLength++] = '\t';
+                    break;
+                case 'b':
+                    decoded[decodedLength++] = '\b';
+                    break;
+                case 'f':
+                    decoded[decodedLength++] = '\f';
+                    break;
+                case 'u':
+                    int codepoint = hex(pos);
+                    pos += 4;
+                    if (Character.isHighSurrogate((char) codepoint) && pos + 6 <= end
+                        && data.get(pos) == '\\' && data.get(pos + 1) == 'u') {
+                        codepoint = Character.toCodePoint((char) codepoint, (char) hex(pos + 2));
+                        pos += 6;
+                    }
+                    appendUtf8(codepoint);
+                    break;
+                default:
+                    // \" \\ \/
+                    decoded[decodedLength++] = escape;
+                    break;
+            }
+        }
+    }
+
+    private int hex(int pos) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = value << 4 | Character.digit(data.get(pos + i), 16);
+        }
+        return value;
+    }
+
+    private void appendUtf8(int codepoint) {
+        if (codepoint < 0x80) {
+            decoded[decodedLength++] = (byte) codepoint;
+        } else if (codepoint < 0x800) {
+            decoded[decodedLength++] = (byte) (0xC0 | codepoint >> 6);
+            decoded[decodedLength++] = (byte) (0x80 | codepoint & 0x3F);
+        } else if (codepoint < 0x10000) {
+            decoded[decodedLength++] = (byte) (0xE0 | codepoint >> 12);
+            decoded[decodedLength++] = (byte) (0x80 | codepoint >> 6 & 0x3F);
+            decoded[decodedLength++] = (byte) (0x80 | codepoint & 0x3F);
+        } else {
+            decoded[decodedLength++] = (byte) (0xF0 | codepoint >> 18);
+            decoded[decodedLength++] = (byte) (0x80 | codepoint >> 12 & 0x3F);
+            decoded[decodedLength++] = (byte) (0x80 | codepoint >> 6 & 0x3F);
+            decoded[decodedLength++] = (byte) (0x80 | codepoint & 0x3F);
+        }
+    }
+
+    private void ensureDecodedCapacity(int capacity) {
+        // Unescaping never makes the data longer than its escaped form
+        if (capacity > decoded.length) {
+            decoded = new byte[Math.max(decoded.length * 2, capacity)];
+        }
+    }
+
+    private int lineEnd(int pos) {
+        int end = find((byte) '\n', pos, data.limit());
+        return end < 0 ? data.limit() : end;
+    }
+
+    private int find(byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (data.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private byte[] slice(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = data.get(from + i);
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads an integer field from the header line, e.g. "width": 80.
+     *
+     * @return The value, or -1 if the field is missing
+     */
+    private static int headerValue(String header, String field) {
+        int key = header.indexOf("\"" + field + "\"");
+        if (key < 0) {
+            return -1;
+        }
+        int pos = header.indexOf(':', key) + 1;
+        while (pos < header.length() && header.charAt(pos) == ' ') {
+            pos++;
+        }
+        int value = 0;
+        boolean seen = false;
+        while (pos < header.length() && Character.isDigit(header.charAt(pos))) {
+            value = value * 10 + (header.charAt(pos++) - '0');
+            seen = true;
+        }
+        return seen ? value : -1;
+    }
+}
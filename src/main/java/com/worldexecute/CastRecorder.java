@@ -0,0 +1,164 @@
+package com.worldexecute;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * CastRecorder - Output sink that records every frame into an asciicast v2 file.
+ * Each flushed frame becomes one "o" event stamped with the show position of
+ * the shared TimelineScheduler, so a headless run at time scale 0 records the
+ * exact show timing in a fraction of a second. The file plays in asciinema
+ * and in CastPlayer, which replays it without recomputing any effect.
+ *
+ * Features:
+ * - Frames are JSON-escaped byte by byte; UTF-8 passes through unchanged
+ * - Optional tee sink so a run can be watched while it is recorded
+ * - Timestamps never run backwards, even if the shared scheduler is replaced
+ */
+public class CastRecorder implements OutputSink {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final OutputSink tee;
+
+    private byte[] frame = new byte[8192];
+    private int frameLength;
+    private byte[] line = new byte[16 * 1024];
+    private int lineLength;
+
+    private long lastMicros;
+    private long events;
+
+    /**
+     * Creates a recorder and writes the asciicast header.
+     *
+     * @param path File to record into; replaced if it exists
+     * @param width Terminal width in columns
+     * @param height Terminal height in rows
+     * @param tee Sink that also receives every frame, or null
+     * @throws IOException If the file cannot be created
+     */
+    public CastRecorder(Path path, int width, int height, OutputSink tee) throws IOException {
+        this.out = new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024);
+        this.tee = tee;
+        String header = "{\"version\": 2, \"width\": " + width + ", \"height\": " + height
+            + ", \"timestamp\": " + System.currentTimeMillis() / 1000
+            + ", \"title\": \"World.Execute(Me)\", \"env\": {\"TERM\": \"xterm-256color\"}}\n";
+        out.write(header.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        if (frameLength + length > frame.length) {
+            byte[] grown = new byte[Math.max(frame.length * 2, frameLength + length)];
+            System.arraycopy(frame, 0, grown, 0, frameLength);
+            frame = grown;
+        }
+        System.arraycopy(data, offset, frame, frameLength, length);
+        frameLength += length;
+        if (tee != null) {
+            tee.write(data, offset, length);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (frameLength > 0) {
+            long micros = Math.max(lastMicros, TimelineScheduler.shared().getElapsedNanos() / 1000);
+            lastMicros = micros;
+            writeEvent(micros);
+            frameLength = 0;
+            events++;
+        }
+        if (tee != null) {
+            tee.flush();
+        }
+    }
+
+    @Override
+    public void sync() throws IOException {
+        if (tee != null) {
+            tee.sync();
+        }
+    }
+
+    @Override
+    public long getBacklogNanos() {
+        return tee == null ? 0 : tee.getBacklogNanos();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+        if (tee != null) {
+            tee.close();
+        }
+    }
+
+    /**
+     * Gets how many frames have been recorded.
+     */
+    public long getEventCount() {
+        return events;
+    }
+
+    /**
+     * Writes [seconds, "o", "frame"] followed by a newline.
+     */
+    private void writeEvent(long micros) throws IOException {
+        // Worst case every byte becomes a six byte \\u escape
+        ensureLineCapacity(frameLength * 6 + 48);
+        lineLength = 0;
+        line[lineLength++] = '[';
+        appendSeconds(micros);
+        appendAscii(", \"o\", \"");
+        for (int i = 0; i < frameLength; i++) {
+            byte b = frame[i];
+            if (b == '"' || b == '\\') {
+                line[lineLength++] = '\\';
+                line[lineLength++] = b;
+            } else if (b == '\n') {
+                appendAscii("\\n");
+            } else if (b == '\r') {
+                appendAscii("\\r");
+            } else if ((b >= 0 && b < 0x20) || b == 0x7F) {
+                appendAscii("\\u00");
+                line[lineLength++] = HEX[b >> 4];
+                line[lineLength++] = HEX[b & 0xF];
+            } else {
+                line[lineLength++] = b;
+            }
+        }
+        appendAscii("\"]\n");
+        out.write(line, 0, lineLength);
+    }
+
+    /**
+     * Appends a timestamp as seconds with six decimals, e.g. 12.345678.
+     */
+    private void appendSeconds(long micros) {
+        appendAscii(Long.toString(micros / 1_000_000));
+        line[lineLength++] = '.';
+        long fraction = micros % 1_000_000;
+        for (long digit = 100_000; digit > 0; digit /= 10) {
+            line[lineLength++] = (byte) ('0' + fraction / digit % 10);
+        }
+    }
+
+    private void appendAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            line[lineLength++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void ensureLineCapacity(int capacity) {
+        if (capacity > line.length) {
+            line = new byte[Math.max(line.length * 2, capacity)];
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.worldexecute;
+
+import java.util.Arrays;
+
+/**
+ * CellGrid - Fixed-size grid of terminal cells.
+ * Each cell holds a Unicode codepoint and a color attribute (the ANSI SGR
+ * foreground code, or 0 for the terminal default).
+ *
+ * Features:
+ * - Flat primitive arrays, no per-cell objects
+ * - Row scrolling and bulk copy for front/back buffering
+ * - Clipped copy of a smaller grid into a region, for compositing layers
+ */
+public class CellGrid {
+
+    public static final int BLANK = ' ';
+    public static final byte DEFAULT_COLOR = 0;
+
+    private final int width;
+    private final int height;
+    private final int[] codepoints;
+    private final byte[] colors;
+
+    /**
+     * Creates a blank grid.
+     *
+     * @param width Number of columns
+     * @param height Number of rows
+     */
+    public CellGrid(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Grid size must be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.codepoints = new int[width * height];
+        this.colors = new byte[width * height];
+        clear();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int codepointAt(int row, int col) {
+        return codepoints[row * width + col];
+    }
+
+    public byte colorAt(int row, int col) {
+        return colors[row * width + col];
+    }
+
+    /**
+     * Sets a single cell.
+     *
+     * @param row Row index
+     * @param col Column index
+     * @param codepoint Character to store
+     * @param color SGR foreground code, or 0 for default
+     */
+    public void set(int row, int col, int codepoint, byte color) {
+        int index = row * width + col;
+        codepoints[index] = codepoint;
+        colors[index] = color;
+    }
+
+    /**
+     * Checks whether a cell differs from the same cell in another grid of equal size.
+     */
+    public boolean differs(CellGrid other, int row, int col) {
+        int index = row * width + col;
+        return codepoints[index] != other.codepoints[index] || colors[index] != other.colors[index];
+    }
+
+    /**
+     * Resets every cell to a default-colored blank.
+     */
+    public void clear() {
+        Arrays.fill(codepoints, BLANK);
+        Arrays.fill(colors, DEFAULT_COLOR);
+    }
+
+    /**
+     * Blanks one row from the given column to the end of the row.
+     */
+    public void clearRow(int row, int fromCol) {
+        int start = row * width + fromCol;
+        int end = (row + 1) * width;
+        Arrays.fill(codepoints, start, end, BLANK);
+        Arrays.fill(colors, start, end, DEFAULT_COLOR);
+    }
+
+    /**
+     * Moves every row up by the given amount, blanking the rows revealed at the bottom.
+     *
+     * @param lines Number of rows to scroll
+     */
+    public void scrollUp(int lines) {
+        if (lines >= height) {
+            clear();
+            return;
+        }
+        int shift = lines * width;
+        System.arraycopy(codepoints, shift, codepoints, 0, codepoints.length - shift);
+        System.arraycopy(colors, shift, colors, 0, colors.length - shift);
+        Arrays.fill(codepoints, codepoints.length - shift, codepoints.length, BLANK);
+        Arrays.fill(colors, colors.length - shift, colors.length, DEFAULT_COLOR);
+    }
+
+    /**
+     * Copies another grid into this one with its top left corner at the given cell,
+     * clipped to this grid.
+     *
+     * @param source Grid to copy
+     * @param row Row of this grid the source's first row lands on
+     * @param col Column of this grid the source's first column lands on
+     * @param transparent If true, default-colored blanks in the source leave this grid's cells alone
+     */
+    public void blit(CellGrid source, int row, int col, boolean transparent) {
+        int fromRow = Math.max(0, -row);
+        int toRow = Math.min(source.height, height - row);
+        int fromCol = Math.max(0, -col);
+        int toCol = Math.min(source.width, width - col);
+        if (fromCol >= toCol) {
+            return;
+        }
+        for (int r = fromRow; r < toRow; r++) {
+            int src = r * source.width + fromCol;
+            int dst = (row + r) * width + col + fromCol;
+            if (!transparent) {
+                System.arraycopy(source.codepoints, src, codepoints, dst, toCol - fromCol);
+                System.arraycopy(source.colors, src, colors, dst, toCol - fromCol);
+                continue;
+            }
+            for (int i = 0; i < toCol - fromCol; i++) {
+                if (source.codepoints[src + i] != BLANK || source.colors[src + i] != DEFAULT_COLOR) {
+                    codepoints[dst + i] = source.codepoints[src + i];
+                    colors[dst + i] = source.colors[src + i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the full contents of another grid of equal size into this one.
+     */
+    public void copyFrom(CellGrid other) {
+        System.arraycopy(other.codepoints, 0, codepoints, 0, codepoints.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+    }
+}
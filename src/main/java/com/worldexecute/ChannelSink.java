@@ -0,0 +1,99 @@
+package com.worldexecute;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ChannelSink - Output sink that writes frames to a channel through a direct buffer.
+ * Frames are copied into one reusable direct buffer and handed to the channel
+ * only on flush(), so a frame costs a single unsynchronized write call instead
+ * of going through System.out's locking, charset encoder and autoflush.
+ *
+ * Features:
+ * - Shared sink for the process's standard output
+ * - File sinks for captures
+ * - One write system call per frame (frames larger than the buffer take a few)
+ */
+public class ChannelSink implements OutputSink {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static ChannelSink stdout;
+
+    private final WritableByteChannel channel;
+    private final boolean owned;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Creates a sink over a channel.
+     *
+     * @param channel Destination channel
+     * @param owned Whether close() should close the channel
+     */
+    public ChannelSink(WritableByteChannel channel, boolean owned) {
+        this.channel = channel;
+        this.owned = owned;
+    }
+
+    /**
+     * Gets the sink for standard output. It is shared, and closing it only flushes it.
+     */
+    public static synchronized ChannelSink stdout() {
+        if (stdout == null) {
+            stdout = new ChannelSink(new FileOutputStream(FileDescriptor.out).getChannel(), false);
+        }
+        return stdout;
+    }
+
+    /**
+     * Creates a sink that writes to a file, replacing it if it exists.
+     *
+     * @param path File to write
+     * @return The sink; closing it closes the file
+     * @throws IOException If the file cannot be opened
+     */
+    public static ChannelSink file(Path path) throws IOException {
+        return new ChannelSink(FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), true);
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int chunk = Math.min(length, buffer.remaining());
+            buffer.put(data, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        drain();
+        if (owned) {
+            channel.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,95 @@
+package com.worldexecute;
+
+import java.util.Arrays;
+
+/**
+ * ColorRules - Per-character color mapping for colored ASCII art.
+ * Rules are written as a comma-separated list of "character:color" pairs,
+ * e.g. "+:red,$:yellow,X:yellow". Characters without a rule use the
+ * terminal's default color.
+ */
+public final class ColorRules {
+
+    /** The rules readFileColor has always used: '+' red, '$' and 'X' yellow. */
+    public static final ColorRules DEFAULT = parse("+:red,$:yellow,X:yellow");
+
+    private final String spec;
+    private final byte[] asciiColors;
+    private final int[] otherChars;
+    private final byte[] otherColors;
+
+    private ColorRules(String spec, byte[] asciiColors, int[] otherChars, byte[] otherColors) {
+        this.spec = spec;
+        this.asciiColors = asciiColors;
+        this.otherChars = otherChars;
+        this.otherColors = otherColors;
+    }
+
+    /**
+     * Parses a rule list.
+     *
+     * @param spec Comma-separated "character:color" pairs; color names as in ConsoleUtils
+     * @return The parsed rules
+     * @throws IllegalArgumentException If a pair is malformed
+     */
+    public static ColorRules parse(String spec) {
+        String trimmed = spec.trim();
+        int[] otherChars = new int[0];
+        byte[] otherColors = new byte[0];
+        byte[] ascii = new byte[128];
+
+        if (!trimmed.isEmpty()) {
+            for (String pair : trimmed.split(",")) {
+                int colon = pair.lastIndexOf(':');
+                String key = colon < 0 ? "" : pair.substring(0, colon);
+                if (key.codePointCount(0, key.length()) != 1) {
+                    throw new IllegalArgumentException("color rule must be <character>:<color>: " + pair);
+                }
+                int codepoint = key.codePointAt(0);
+                byte color = sgrColor(pair.substring(colon + 1).trim());
+                if (codepoint < ascii.length) {
+                    ascii[codepoint] = color;
+                } else {
+                    otherChars = Arrays.copyOf(otherChars, otherChars.length + 1);
+                    otherColors = Arrays.copyOf(otherColors, otherColors.length + 1);
+                    otherChars[otherChars.length - 1] = codepoint;
+                    otherColors[otherColors.length - 1] = color;
+                }
+            }
+        }
+
+        return new ColorRules(trimmed, ascii, otherChars, otherColors);
+    }
+
+    /**
+     * Gets the color for a character.
+     *
+     * @param codepoint Character to color
+     * @return SGR foreground code, or 0 for the default color
+     */
+    public byte colorOf(int codepoint) {
+        if (codepoint < asciiColors.length) {
+            return asciiColors[codepoint];
+        }
+        for (int i = 0; i < otherChars.length; i++) {
+            if (otherChars[i] == codepoint) {
+                return otherColors[i];
+            }
+        }
+        return CellGrid.DEFAULT_COLOR;
+    }
+
+    /**
+     * Gets the rule list these rules were parsed from.
+     */
+    public String getSpec() {
+        return spec;
+    }
+
+    private static byte sgrColor(String name) {
+        if (name.equalsIgnoreCase("default") || name.equalsIgnoreCase("reset")) {
+            return CellGrid.DEFAULT_COLOR;
+        }
+        return (byte) Ansi.sgrCode(name);
+    }
+}
@@ -0,0 +1,103 @@
+package com.worldexecute;
+
+import java.util.Arrays;
+
+/**
+ * ColorSpans - An asset precompiled into run-length color spans.
+ * Each line becomes "color, run, color, run", so drawing a colored line is
+ * one color change per run instead of a color escape and reset around every
+ * character.
+ */
+public final class ColorSpans {
+
+    private final Asset asset;
+    private final ColorRules rules;
+    private final int[] lineFirstSpan;
+    private final int[] spanStarts;
+    private final byte[] spanColors;
+
+    private ColorSpans(Asset asset, ColorRules rules, int[] lineFirstSpan, int[] spanStarts, byte[] spanColors) {
+        this.asset = asset;
+        this.rules = rules;
+        this.lineFirstSpan = lineFirstSpan;
+        this.spanStarts = spanStarts;
+        this.spanColors = spanColors;
+    }
+
+    /**
+     * Splits every line of an asset into runs of equal color.
+     *
+     * @param asset The asset to compile
+     * @param rules Character color rules
+     * @return The compiled spans
+     */
+    public static ColorSpans compile(Asset asset, ColorRules rules) {
+        int lineCount = asset.getLineCount();
+        int[] lineFirstSpan = new int[lineCount + 1];
+        int[] starts = new int[64];
+        byte[] colors = new byte[64];
+        int spans = 0;
+
+        for (int line = 0; line < lineCount; line++) {
+            lineFirstSpan[line] = spans;
+            String text = asset.getLine(line);
+            int i = 0;
+            while (i < text.length()) {
+                int codepoint = text.codePointAt(i);
+                byte color = rules.colorOf(codepoint);
+                if (spans == lineFirstSpan[line] || colors[spans - 1] != color) {
+                    if (spans == starts.length) {
+                        starts = Arrays.copyOf(starts, spans * 2);
+                        colors = Arrays.copyOf(colors, spans * 2);
+                    }
+                    starts[spans] = i;
+                    colors[spans] = color;
+                    spans++;
+                }
+                i += Character.charCount(codepoint);
+            }
+        }
+        lineFirstSpan[lineCount] = spans;
+
+        return new ColorSpans(asset, rules, lineFirstSpan,
+            Arrays.copyOf(starts, spans), Arrays.copyOf(colors, spans));
+    }
+
+    public Asset getAsset() {
+        return asset;
+    }
+
+    public ColorRules getRules() {
+        return rules;
+    }
+
+    public int getLineCount() {
+        return asset.getLineCount();
+    }
+
+    /**
+     * Gets the number of color runs in a line.
+     */
+    public int getSpanCount(int line) {
+        return lineFirstSpan[line + 1] - lineFirstSpan[line];
+    }
+
+    /**
+     * Draws one line into a screen, one color change per run.
+     * The screen's color is left at the default afterwards.
+     *
+     * @param screen Screen to draw into
+     * @param line Line index
+     */
+    public void drawLine(Screen screen, int line) {
+        String text = asset.getLine(line);
+        int first = lineFirstSpan[line];
+        int last = lineFirstSpan[line + 1];
+        for (int span = first; span < last; span++) {
+            int end = span + 1 < last ? spanStarts[span + 1] : text.length();
+            screen.setColor(spanColors[span]);
+            screen.print(text, spanStarts[span], end);
+        }
+        screen.setColor(CellGrid.DEFAULT_COLOR);
+    }
+}
@@ -0,0 +1,156 @@
+package com.worldexecute;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compositor - Merges the shared screen and the show's layers into one frame at a fixed rate.
+ * While it runs, effects only publish their screens (see Layer); a compositor
+ * thread wakes once per tick, copies the shared screen and then every visible
+ * layer in z order into a composite screen, and hands that to the renderer.
+ * The terminal therefore gets at most one frame per tick however many effects
+ * are drawing, and each frame shows all of them at the same instant.
+ *
+ * Ticks are scheduled on absolute deadlines (start + n * period) of the wall
+ * clock; a tick that runs more than a period late is skipped rather than
+ * queued. Composing reuses the same grids every tick, so nothing is allocated
+ * per frame.
+ *
+ * Features:
+ * - Frame rate from -Dworldexecute.fps (default 30)
+ * - Layers stacked by z order, opaque or transparent
+ * - Scrolling and clearing of the shared screen passed through to the terminal
+ * - Idle ticks (nothing published) write nothing
+ */
+public class Compositor {
+
+    private static final int DEFAULT_FPS = 30;
+
+    private final Layer base;
+    private final Layer[] layers;
+    private final Screen composed;
+    private final long periodNanos;
+    private Thread ticker;
+    private volatile boolean running;
+
+    /**
+     * Creates a compositor over the shared screen at the configured frame rate.
+     *
+     * @param layers Layers drawn over the shared screen
+     */
+    public Compositor(Layer[] layers) {
+        this(layers, Integer.getInteger("worldexecute.fps", DEFAULT_FPS));
+    }
+
+    /**
+     * Creates a compositor over the shared screen.
+     *
+     * @param layers Layers drawn over the shared screen
+     * @param fps Frames composed per second
+     */
+    public Compositor(Layer[] layers, int fps) {
+        if (fps <= 0) {
+            throw new IllegalArgumentException("Frame rate must be positive: " + fps);
+        }
+        Screen screen = Terminal.getDisplayedScreen();
+        this.base = new Layer(screen);
+        this.layers = layers.clone();
+        Arrays.sort(this.layers, Comparator.comparingInt(Layer::getZ));
+        this.composed = new Screen(screen.getWidth(), screen.getHeight());
+        this.periodNanos = TimeUnit.SECONDS.toNanos(1) / fps;
+    }
+
+    /**
+     * Gets the layer wrapping the shared screen.
+     */
+    public Layer getBase() {
+        return base;
+    }
+
+    /**
+     * Gets the screen frames are composed into, i.e. what the terminal shows.
+     */
+    public Screen getComposed() {
+        return composed;
+    }
+
+    /**
+     * Takes over the shared screen's flushes and starts the compositor thread.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        base.publish();
+        Terminal.setCompositor(this);
+        running = true;
+        ticker = new Thread(this::run, "compositor");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    /**
+     * Stops the compositor thread, composes one last frame and leaves it in the
+     * shared screen, so flushing it afterwards shows the same picture.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(ticker);
+        try {
+            ticker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Terminal.setCompositor(null);
+        base.publish();
+        compose(true);
+        base.getScreen().getBackGrid().copyFrom(composed.getBackGrid());
+    }
+
+    /**
+     * Compositor thread body: composes a frame at every tick deadline.
+     */
+    private void run() {
+        long next = System.nanoTime();
+        while (running) {
+            long remaining;
+            while (running && (remaining = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            if (!running) {
+                return;
+            }
+            compose(false);
+            next += periodNanos;
+            long late = System.nanoTime() - next;
+            if (late > 0) {
+                // Skip the ticks that were missed instead of composing them back to back
+                next += (late / periodNanos + 1) * periodNanos;
+            }
+        }
+    }
+
+    /**
+     * Composes the current frame and flushes it if anything changed.
+     */
+    private void compose(boolean force) {
+        CellGrid target = composed.getBackGrid();
+        boolean changed;
+        synchronized (base) {
+            // Grid and scroll must come from the same publish
+            changed = base.composeInto(target);
+            base.takePendingInto(composed);
+        }
+        for (Layer layer : layers) {
+            changed |= layer.composeInto(target);
+        }
+        if (changed || force) {
+            Terminal.getRenderer().flush(composed);
+        }
+    }
+}
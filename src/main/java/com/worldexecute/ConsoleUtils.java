@@ -23,6 +23,9 @@ public class ConsoleUtils {
     public static final String CYAN = "\u001B[36m";
     public static final String WHITE = "\u001B[37m";
 
+    private static final int LOADING_BARS = 10;
+    private static final ProgressBar LOADING_BAR = new ProgressBar(LOADING_BARS);
+
     /**
      * Prints text with slow typing effect.
      *
@@ -33,26 +36,25 @@ public class ConsoleUtils {
      * @param color Color of the text (green, blue, yellow, red, cyan, or empty for green)
      */
     public static void slowType(String text, int delayMilliseconds, boolean newLine, int spaceNumber, String color) {
-        String colorCode = getColorCode(color);
-        System.out.print(colorCode + "[Console] ");
-
-        for (char c : text.toCharArray()) {
-            System.out.print(c);
-            try {
-                Thread.sleep(delayMilliseconds);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        Terminal.print(Ansi.colorCode(color));
+        Terminal.print("[Console] ");
+
+        for (int i = 0; i < text.length(); i++) {
+            // Behind schedule, typed characters pile up and go out in one write
+            Terminal.print(text.charAt(i));
+            Terminal.flushFrame();
+            TimelineScheduler.pace(delayMilliseconds);
         }
 
-        System.out.print(RESET);
+        Terminal.print(RESET);
 
         if (newLine) {
-            System.out.println();
+            Terminal.println();
             for (int i = 0; i < spaceNumber; i++) {
-                System.out.println();
+                Terminal.println();
             }
         }
+        Terminal.flush();
     }
 
     /**
@@ -66,26 +68,26 @@ public static void slowType(String text, int delayMilliseconds, boolean newLine,
      * @param color Color of the text
      */
     public static void slowType2(String text, String name, int delayMilliseconds, boolean newLine, int spaceNumber, String color) {
-        String colorCode = getColorCode(color);
-        System.out.print(colorCode + name + " ");
-
-        for (char c : text.toCharArray()) {
-            System.out.print(c);
-            try {
-                Thread.sleep(delayMilliseconds);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        Terminal.print(Ansi.colorCode(color));
+        Terminal.print(name);
+        Terminal.print(' ');
+
+        for (int i = 0; i < text.length(); i++) {
+            // Behind schedule, typed characters pile up and go out in one write
+            Terminal.print(text.charAt(i));
+            Terminal.flushFrame();
+            TimelineScheduler.pace(delayMilliseconds);
         }
 
-        System.out.print(RESET);
+        Terminal.print(RESET);
 
         if (newLine) {
-            System.out.println();
+            Terminal.println();
             for (int i = 0; i < spaceNumber; i++) {
-                System.out.println();
+                Terminal.println();
             }
         }
+        Terminal.flush();
     }
 
     /**
@@ -95,7 +97,10 @@ public static void slowType2(String text, String name, int delayMilliseconds, bo
      * @param color Color name
      */
     public static void printColored(String text, String color) {
-        System.out.println(getColorCode(color) + text + RESET);
+        Terminal.print(Ansi.colorCode(color));
+        Terminal.print(text);
+        Terminal.println(RESET);
+        Terminal.flush();
     }
 
     /**
@@ -106,64 +111,46 @@ public static void printColored(String text, String color) {
      * @param barAmount Total number of bars (not used, kept for compatibility)
      */
     public static void simulateLoading(String message, int delayAmount, int barAmount) {
-        int totalBars = 10;
-
-        for (int i = 0; i <= totalBars; i++) {
-            StringBuilder progressBar = new StringBuilder("[");
-            for (int j = 0; j < i; j++) {
-                progressBar.append('#');
-            }
-            for (int j = i; j < totalBars; j++) {
-                progressBar.append('-');
-            }
-            progressBar.append("]");
-
-            System.out.print("\r" + progressBar + " " + (i * 100 / 10) + "%");
-            try {
-                Thread.sleep(delayAmount);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        Screen screen = Terminal.getScreen();
+        for (int i = 0; i <= LOADING_BARS; i++) {
+            LOADING_BAR.draw(screen, i, 0);
+            Terminal.flushFrame();
+            TimelineScheduler.pace(delayAmount);
         }
 
-        System.out.println("\n" + message);
+        Terminal.println();
+        Terminal.println(message);
+        Terminal.flush();
     }
 
     /**
-     * Clears the console screen using ANSI escape codes.
+     * Computes how long slowType or slowType2 paces for a given text.
+     *
+     * @param text The text to display
+     * @param delayMilliseconds Delay between each character in milliseconds
+     * @return Nominal duration in milliseconds
      */
-    public static void clearConsole() {
-        System.out.print("\033[H\033[2J");
-        System.out.flush();
+    public static long slowTypeDuration(String text, int delayMilliseconds) {
+        return (long) text.length() * delayMilliseconds;
     }
 
     /**
-     * Gets the ANSI color code for a color name.
+     * Computes how long simulateLoading paces for.
      *
-     * @param color Color name (green, blue, yellow, red, cyan)
-     * @return ANSI color code string
+     * @param delayAmount Delay between each progress update in milliseconds
+     * @return Nominal duration in milliseconds
      */
-    private static String getColorCode(String color) {
-        if (color == null || color.isEmpty()) {
-            return GREEN;
-        }
+    public static long simulateLoadingDuration(int delayAmount) {
+        return (long) (LOADING_BARS + 1) * delayAmount;
+    }
 
-        switch (color.toLowerCase()) {
-            case "green":
-                return GREEN;
-            case "blue":
-            case "cyan":
-                return CYAN;
-            case "yellow":
-                return YELLOW;
-            case "red":
-                return RED;
-            case "purple":
-                return PURPLE;
-            case "white":
-                return WHITE;
-            default:
-                return GREEN;
-        }
+    /**
+     * Clears the console screen.
+     * Only the screen model is blanked; the terminal receives a single clear
+     * sequence on the next flush.
+     */
+    public static void clearConsole() {
+        Terminal.clear();
+        Terminal.flush();
     }
 }
@@ -0,0 +1,199 @@
+package com.worldexecute;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cue - One immutable step of the show.
+ * Holds the effect to run, its already-parsed parameters and the start time
+ * and duration the cue sheet compiler precomputed for it.
+ */
+public final class Cue {
+
+    private final int index;
+    private final CueType type;
+    private final String text;
+    private final String name;
+    private final String color;
+    private final int delay;
+    private final int loops;
+    private final int space;
+    private final int world;
+    private final boolean newLine;
+    private final boolean sepColor;
+    private final String asset;
+    private final ColorRules colorRules;
+    private final List<String> lines;
+    private final String layer;
+    private final long startMillis;
+    private final long durationMillis;
+
+    /**
+     * Creates a cue from parsed cue sheet attributes.
+     *
+     * @param index Position of the cue in its timeline
+     * @param type Effect to run
+     * @param attributes Single-valued attributes (key to raw value)
+     * @param lines Values of the repeated "line" attribute
+     * @param startMillis Scheduled start, relative to the start of the show
+     * @param durationMillis Nominal duration of the effect
+     * @throws IllegalArgumentException If a required attribute is missing or malformed
+     */
+    Cue(int index, CueType type, Map<String, String> attributes, List<String> lines,
+        long startMillis, long durationMillis) {
+        this.index = index;
+        this.type = type;
+        this.text = attributes.getOrDefault("text", "");
+        this.name = attributes.getOrDefault("name", attributes.getOrDefault("actor", ""));
+        this.color = attributes.getOrDefault("color", "");
+        this.delay = intAttribute(attributes, "delay", type == CueType.PAUSE || type == CueType.SLOW_TYPE
+            || type == CueType.SLOW_TYPE2 || type == CueType.SIMULATE_LOADING ? -1 : 0);
+        this.loops = intAttribute(attributes, "loops",
+            type == CueType.ANIMATE_TEXT || type == CueType.ENCRYPT_WALL ? -1 : 0);
+        this.space = intAttribute(attributes, "space", 0);
+        this.world = intAttribute(attributes, "world", type == CueType.SIMULATE_WORLD2 ? 2 : 1);
+        this.newLine = booleanAttribute(attributes, "newLine", true);
+        this.sepColor = booleanAttribute(attributes, "sepColor", false);
+        this.asset = attributes.get("asset");
+        this.colorRules = attributes.containsKey("colors")
+            ? ColorRules.parse(attributes.get("colors")) : ColorRules.DEFAULT;
+        this.lines = Collections.unmodifiableList(lines);
+        this.layer = attributes.get("layer");
+        this.startMillis = startMillis;
+        this.durationMillis = durationMillis;
+
+        if (type.accepts("asset") && asset == null) {
+            throw new IllegalArgumentException(type.getKeyword() + " requires an asset");
+        }
+        if (type == CueType.ENCRYPT_WALL && lines.isEmpty()) {
+            throw new IllegalArgumentException("encryptWall requires at least one line");
+        }
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public CueType getType() {
+        return type;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the prefix shown before the text (slowType2 name or animateText actor).
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public int getDelay() {
+        return delay;
+    }
+
+    public int getLoops() {
+        return loops;
+    }
+
+    public int getSpace() {
+        return space;
+    }
+
+    public int getWorld() {
+        return world;
+    }
+
+    public boolean isNewLine() {
+        return newLine;
+    }
+
+    public boolean isSepColor() {
+        return sepColor;
+    }
+
+    public String getAsset() {
+        return asset;
+    }
+
+    /**
+     * Gets the character color rules for readFileColor cues.
+     */
+    public ColorRules getColorRules() {
+        return colorRules;
+    }
+
+    public List<String> getLines() {
+        return lines;
+    }
+
+    /**
+     * Gets the name of the layer the cue draws into (see Timeline.layerOf).
+     *
+     * @return Layer name, or null for the shared screen
+     */
+    public String getLayer() {
+        return layer;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getEndMillis() {
+        return startMillis + durationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + index + " " + type.getKeyword() + " @" + startMillis + "ms +" + durationMillis + "ms";
+    }
+
+    /**
+     * Parses an integer attribute.
+     *
+     * @param fallback Value when absent; negative means the attribute is required
+     */
+    private static int intAttribute(Map<String, String> attributes, String key, int fallback) {
+        String value = attributes.get(key);
+        if (value == null) {
+            if (fallback < 0) {
+                throw new IllegalArgumentException("missing required attribute '" + key + "'");
+            }
+            return fallback;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 0) {
+                throw new IllegalArgumentException("attribute '" + key + "' must not be negative: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("attribute '" + key + "' is not a number: " + value);
+        }
+    }
+
+    private static boolean booleanAttribute(Map<String, String> attributes, String key, boolean fallback) {
+        String value = attributes.get(key);
+        if (value == null) {
+            return fallback;
+        }
+        if (value.equals("true")) {
+            return true;
+        }
+        if (value.equals("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("attribute '" + key + "' must be true or false: " + value);
+    }
+}
@@ -0,0 +1,38 @@
+package com.worldexecute;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * CueEvent - Flight recorder event for one cue, spanning the whole effect.
+ */
+@Name("com.worldexecute.Cue")
+@Label("Cue")
+@Category("World.Execute(Me)")
+@Description("A cue from the cue sheet, from its release to the end of its effect")
+final class CueEvent extends jdk.jfr.Event {
+
+    @Label("Cue")
+    @Description("Cue sheet keyword of the effect")
+    String cue;
+
+    @Label("Text")
+    String text;
+
+    @Label("Scheduled Time")
+    @Description("Show position the cue was scheduled for")
+    @Timespan(Timespan.NANOSECONDS)
+    long scheduledTime;
+
+    @Label("Actual Time")
+    @Description("Show position the cue was released at")
+    @Timespan(Timespan.NANOSECONDS)
+    long actualTime;
+
+    @Label("Bytes")
+    @Description("Bytes the renderer wrote while the effect ran")
+    long bytes;
+}
@@ -0,0 +1,441 @@
+package com.worldexecute;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CueSheet - Parser and compiler for the declarative show script.
+ * A cue sheet is a plain text resource with one effect per line:
+ *
+ *   slowType text="Switch on the Power Line" delay=50
+ *   readFile asset=textFiles/logoRhine
+ *
+ * "chapter name=..." lines mark where a named section of the show begins,
+ * so a run can start there (see Timeline.indexOfChapter).
+ *
+ * "layer name=... row= col= width= height= [z=] [transparent=]" lines declare
+ * a screen region (see Layer). A cue with a layer attribute draws there and
+ * runs alongside the cues after it: it starts where the show is and does not
+ * move the following cues back.
+ *
+ * Compiling resolves defaults, expands repeat blocks, warms the AssetCache
+ * with every referenced asset and precomputes every cue's start time and
+ * duration into an immutable Timeline.
+ *
+ * Features:
+ * - Quoted values with \e, \", \\, \n, \r, \t and \\uXXXX escapes
+ * - Indented continuation lines for multi-valued attributes
+ * - "repeat count=N" ... "end" blocks (nestable)
+ * - Named chapters
+ * - Layers for effects that run side by side
+ * - Errors reported with source name and line number
+ */
+public class CueSheet {
+
+    public static final String DEFAULT_SCRIPT = "cueSheets/worldexecute.cue";
+
+    /**
+     * Loads and compiles the script named by the worldexecute.script system
+     * property, or the bundled default script.
+     *
+     * @return The compiled timeline
+     */
+    public static Timeline loadDefault() {
+        return load(System.getProperty("worldexecute.script", DEFAULT_SCRIPT));
+    }
+
+    /**
+     * Loads and compiles a cue sheet from a file path or, failing that, the classpath.
+     *
+     * @param path File path or classpath resource path
+     * @return The compiled timeline
+     * @throws IllegalArgumentException If the script is missing or invalid
+     */
+    public static Timeline load(String path) {
+        File file = new File(path);
+        try {
+            if (file.isFile()) {
+                try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                    return compile(reader, path);
+                }
+            }
+            InputStream inputStream = CueSheet.class.getClassLoader().getResourceAsStream(path);
+            if (inputStream == null) {
+                throw new IllegalArgumentException("Cue sheet not found: " + path);
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                return compile(reader, path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading cue sheet " + path, e);
+        }
+    }
+
+    /**
+     * Parses and compiles a cue sheet.
+     *
+     * @param reader Source of the script
+     * @param sourceName Name used in error messages
+     * @return The compiled timeline
+     * @throws IOException If reading fails
+     * @throws IllegalArgumentException If the script is invalid
+     */
+    public static Timeline compile(BufferedReader reader, String sourceName) throws IOException {
+        Map<String, Integer> chapters = new LinkedHashMap<>();
+        Map<String, Layer> layers = new LinkedHashMap<>();
+        List<RawCue> raw = parse(reader, sourceName, chapters, layers);
+
+        // Load every referenced asset in parallel; durations below then come from the cache
+        Set<String> assets = new LinkedHashSet<>();
+        for (RawCue rawCue : raw) {
+            String asset = rawCue.attributes.get("asset");
+            if (asset != null) {
+                assets.add(asset);
+            }
+        }
+        AssetCache.warm(assets).join();
+
+        Map<String, Long> fileDurations = new HashMap<>();
+        List<Cue> cues = new ArrayList<>(raw.size());
+        long start = 0;
+        for (RawCue rawCue : raw) {
+            try {
+                long duration = durationOf(rawCue, fileDurations);
+                cues.add(new Cue(cues.size(), rawCue.type, rawCue.attributes, rawCue.lines, start, duration));
+                if (!rawCue.attributes.containsKey("layer")) {
+                    start += duration;
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(sourceName + ":" + rawCue.lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+
+        // Colored assets are split into color runs now rather than mid-show
+        for (Cue cue : cues) {
+            if (cue.getType() == CueType.READ_FILE_COLOR) {
+                FileReaderUtil.prepareColor(cue.getAsset(), cue.getColorRules());
+            }
+        }
+        return new Timeline(cues, chapters, layers);
+    }
+
+    /**
+     * Computes the nominal duration of a cue from the pacing rules of its effect.
+     */
+    private static long durationOf(RawCue cue, Map<String, Long> fileDurations) {
+        Map<String, String> a = cue.attributes;
+        switch (cue.type) {
+            case SLOW_TYPE:
+            case SLOW_TYPE2:
+                return ConsoleUtils.slowTypeDuration(a.getOrDefault("text", ""), parseInt(a, "delay"));
+            case ANIMATE_TEXT:
+                return TextAnimator.animateTextDuration(parseInt(a, "loops"));
+            case ENCRYPT_WALL:
+                return TextAnimator.encryptWallDuration(parseInt(a, "loops"), cue.lines.size());
+            case SIMULATE_LOADING:
+                return ConsoleUtils.simulateLoadingDuration(parseInt(a, "delay"));
+            case SIMULATE_WORLD:
+                return TextAnimator.simulateWorldDuration();
+            case SIMULATE_WORLD2:
+                return TextAnimator.simulateWorld2Duration();
+            case READ_FILE:
+            case READ_FILE_COLOR:
+                String asset = a.get("asset");
+                return asset == null ? 0 : fileDurations.computeIfAbsent(asset, FileReaderUtil::readFileDuration);
+            case PAUSE:
+                return parseInt(a, "delay");
+            default:
+                return 0;
+        }
+    }
+
+    private static int parseInt(Map<String, String> attributes, String key) {
+        String value = attributes.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("missing required attribute '" + key + "'");
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("attribute '" + key + "' is not a number: " + value);
+        }
+    }
+
+    /**
+     * Parses the script into a flat list of cues with repeat blocks expanded.
+     *
+     * @param chapters Filled with each chapter name and the index of its first cue
+     * @param layers Filled with each declared layer by name
+     */
+    private static List<RawCue> parse(BufferedReader reader, String sourceName,
+                                      Map<String, Integer> chapters, Map<String, Layer> layers) throws IOException {
+        List<RawCue> cues = new ArrayList<>();
+        Deque<int[]> repeats = new ArrayDeque<>();
+        RawCue last = null;
+        String line;
+        int lineNumber = 0;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            try {
+                List<String> tokens = tokenize(trimmed);
+                boolean continuation = Character.isWhitespace(line.charAt(0));
+
+                if (continuation) {
+                    if (last == null) {
+                        throw new IllegalArgumentException("indented line does not follow a cue");
+                    }
+                    addAttributes(last, tokens, 0, layers);
+                    continue;
+                }
+
+                String keyword = tokens.get(0);
+                if (keyword.equals("repeat")) {
+                    Map<String, String> attributes = new HashMap<>();
+                    for (int i = 1; i < tokens.size(); i++) {
+                        String[] pair = splitAttribute(tokens.get(i));
+                        attributes.put(pair[0], pair[1]);
+                    }
+                    int count = parseInt(attributes, "count");
+                    if (count < 1) {
+                        throw new IllegalArgumentException("repeat count must be at least 1");
+                    }
+                    repeats.push(new int[] {cues.size(), count, lineNumber});
+                    last = null;
+                    continue;
+                }
+                if (keyword.equals("chapter")) {
+                    if (!repeats.isEmpty()) {
+                        throw new IllegalArgumentException("'chapter' inside a repeat block");
+                    }
+                    Map<String, String> attributes = new HashMap<>();
+                    for (int i = 1; i < tokens.size(); i++) {
+                        String[] pair = splitAttribute(tokens.get(i));
+                        attributes.put(pair[0], pair[1]);
+                    }
+                    String name = attributes.get("name");
+                    if (name == null || name.isEmpty()) {
+                        throw new IllegalArgumentException("missing required attribute 'name'");
+                    }
+                    if (chapters.putIfAbsent(name, cues.size()) != null) {
+                        throw new IllegalArgumentException("duplicate chapter '" + name + "'");
+                    }
+                    last = null;
+                    continue;
+                }
+                if (keyword.equals("layer")) {
+                    Map<String, String> attributes = new HashMap<>();
+                    for (int i = 1; i < tokens.size(); i++) {
+                        String[] pair = splitAttribute(tokens.get(i));
+                        attributes.put(pair[0], pair[1]);
+                    }
+                    Layer layer = parseLayer(attributes);
+                    if (layers.putIfAbsent(layer.getName(), layer) != null) {
+                        throw new IllegalArgumentException("duplicate layer '" + layer.getName() + "'");
+                    }
+                    last = null;
+                    continue;
+                }
+                if (keyword.equals("end")) {
+                    if (repeats.isEmpty()) {
+                        throw new IllegalArgumentException("'end' without 'repeat'");
+                    }
+                    int[] block = repeats.pop();
+                    List<RawCue> body = new ArrayList<>(cues.subList(block[0], cues.size()));
+                    for (int i = 1; i < block[1]; i++) {
+                        cues.addAll(body);
+                    }
+                    last = null;
+                    continue;
+                }
+
+                CueType type = CueType.fromKeyword(keyword);
+                if (type == null) {
+                    throw new IllegalArgumentException("unknown effect '" + keyword + "'");
+                }
+                last = new RawCue(type, lineNumber);
+                addAttributes(last, tokens, 1, layers);
+                cues.add(last);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(sourceName + ":" + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+
+        if (!repeats.isEmpty()) {
+            throw new IllegalArgumentException(sourceName + ":" + repeats.peek()[2] + ": 'repeat' without 'end'");
+        }
+        for (Map.Entry<String, Integer> chapter : chapters.entrySet()) {
+            if (chapter.getValue() == cues.size()) {
+                throw new IllegalArgumentException(sourceName + ": chapter '" + chapter.getKey() + "' has no cues");
+            }
+        }
+        return cues;
+    }
+
+    /**
+     * Creates the layer a "layer" line declares.
+     */
+    private static Layer parseLayer(Map<String, String> attributes) {
+        String name = attributes.get("name");
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("missing required attribute 'name'");
+        }
+        int width = parseInt(attributes, "width");
+        int height = parseInt(attributes, "height");
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("layer '" + name + "' must be at least 1x1");
+        }
+        String transparent = attributes.getOrDefault("transparent", "false");
+        if (!transparent.equals("true") && !transparent.equals("false")) {
+            throw new IllegalArgumentException("attribute 'transparent' must be true or false: " + transparent);
+        }
+        return new Layer(name, parseInt(attributes, "row"), parseInt(attributes, "col"), width, height,
+            attributes.containsKey("z") ? parseInt(attributes, "z") : 1, transparent.equals("true"));
+    }
+
+    private static void addAttributes(RawCue cue, List<String> tokens, int from, Map<String, Layer> layers) {
+        for (int i = from; i < tokens.size(); i++) {
+            String[] pair = splitAttribute(tokens.get(i));
+            if (pair[0].equals("layer")) {
+                if (!layers.containsKey(pair[1])) {
+                    throw new IllegalArgumentException("unknown layer '" + pair[1] + "'");
+                }
+                cue.attributes.put(pair[0], pair[1]);
+                continue;
+            }
+            if (!cue.type.accepts(pair[0])) {
+                throw new IllegalArgumentException(cue.type.getKeyword() + " has no attribute '" + pair[0] + "'");
+            }
+            if (pair[0].equals("line")) {
+                cue.lines.add(pair[1]);
+            } else {
+                cue.attributes.put(pair[0], pair[1]);
+            }
+        }
+    }
+
+    private static String[] splitAttribute(String token) {
+        int equals = token.indexOf('=');
+        if (equals <= 0) {
+            throw new IllegalArgumentException("expected key=value but found '" + token + "'");
+        }
+        return new String[] {token.substring(0, equals), token.substring(equals + 1)};
+    }
+
+    /**
+     * Splits a line into whitespace-separated tokens, unquoting and unescaping values.
+     * A token "key=\"a b\"" becomes "key=a b".
+     */
+    private static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean inToken = false;
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    quoted = false;
+                } else if (c == '\\') {
+                    i = unescape(line, i + 1, token);
+                } else {
+                    token.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                inToken = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(c);
+                inToken = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted value");
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Appends the character for the escape starting at index and returns the index of its last character.
+     */
+    private static int unescape(String line, int index, StringBuilder out) {
+        if (index >= line.length()) {
+            throw new IllegalArgumentException("dangling backslash");
+        }
+        char c = line.charAt(index);
+        switch (c) {
+            case 'e':
+                out.append('\u001B');
+                return index;
+            case 'n':
+                out.append('\n');
+                return index;
+            case 'r':
+                out.append('\r');
+                return index;
+            case 't':
+                out.append('\t');
+                return index;
+            case '"':
+            case '\\':
+                out.append(c);
+                return index;
+            case 'u':
+                if (index + 4 >= line.length()) {
+                    throw new IllegalArgumentException("truncated \\u escape");
+                }
+                try {
+                    out.append((char) Integer.parseInt(line.substring(index + 1, index + 5), 16));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("invalid \\u escape: " + line.substring(index - 1, index + 5));
+                }
+                return index + 4;
+            default:
+                throw new IllegalArgumentException("unknown escape \\" + c);
+        }
+    }
+
+    /**
+     * A parsed cue before timing is computed.
+     */
+    private static final class RawCue {
+        final CueType type;
+        final int lineNumber;
+        final Map<String, String> attributes = new LinkedHashMap<>();
+        final List<String> lines = new ArrayList<>();
+
+        RawCue(CueType type, int lineNumber) {
+            this.type = type;
+            this.lineNumber = lineNumber;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.worldexecute;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * CueType - The effects a cue sheet can trigger.
+ * Each type knows its cue sheet keyword and which attributes it accepts.
+ */
+public enum CueType {
+    SLOW_TYPE("slowType", "text", "delay", "newLine", "space", "color"),
+    SLOW_TYPE2("slowType2", "text", "name", "delay", "newLine", "space", "color"),
+    ANIMATE_TEXT("animateText", "text", "actor", "color", "loops", "sepColor"),
+    ENCRYPT_WALL("encryptWall", "loops", "line"),
+    SIMULATE_LOADING("simulateLoading", "text", "delay"),
+    SIMULATE_WORLD("simulateWorld", "world"),
+    SIMULATE_WORLD2("simulateWorld2", "world"),
+    READ_FILE("readFile", "asset"),
+    READ_FILE_COLOR("readFileColor", "asset", "colors"),
+    READ_FILE_QUICK("readFileQuick", "asset"),
+    PRINT("print", "text", "newLine"),
+    CLEAR("clear"),
+    PAUSE("pause", "delay");
+
+    private final String keyword;
+    private final Set<String> attributes;
+
+    CueType(String keyword, String... attributes) {
+        this.keyword = keyword;
+        this.attributes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(attributes)));
+    }
+
+    /**
+     * Gets the name used for this effect in cue sheets.
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Checks whether the effect accepts the given attribute.
+     */
+    public boolean accepts(String attribute) {
+        return attributes.contains(attribute);
+    }
+
+    /**
+     * Finds the cue type for a cue sheet keyword.
+     *
+     * @param keyword Effect name as written in the cue sheet
+     * @return The matching type, or null if there is none
+     */
+    public static CueType fromKeyword(String keyword) {
+        for (CueType type : values()) {
+            if (type.keyword.equals(keyword)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
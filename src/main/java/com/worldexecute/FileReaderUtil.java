@@ -1,14 +1,12 @@
 package com.worldexecute;
 
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * FileReaderUtil - Standalone utility for reading and displaying text files.
  * Provides methods to read text files line-by-line with optional delays and color formatting.
+ * Files are served from the AssetCache, so repeated displays do no I/O.
  *
  * Features:
  * - Read and display text files with optional delays between lines
@@ -17,34 +15,27 @@
  */
 public class FileReaderUtil {
 
+    private static final int LINE_DELAY_MILLIS = 5;
+
+    private static final Map<String, ColorSpans> colorSpans = new ConcurrentHashMap<>();
+
     /**
      * Reads a text file and displays it line-by-line with a small delay.
      *
      * @param fileName The file path (without .txt extension)
      */
     public static void readFile(String fileName) {
-        String filePath = fileName + ".txt";
-
-        try (InputStream inputStream = FileReaderUtil.class.getClassLoader().getResourceAsStream(filePath);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-
-            if (inputStream == null) {
-                System.out.println("The file could not be found: " + filePath);
-                return;
-            }
+        Asset asset = loadAsset(fileName);
+        if (asset == null) {
+            return;
+        }
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                System.out.println(line);
-                try {
-                    Thread.sleep(5);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("An error occurred while reading the file: " + e.getMessage());
+        for (int i = 0; i < asset.getLineCount(); i++) {
+            Terminal.println(asset.getLine(i));
+            Terminal.flushFrame();
+            TimelineScheduler.pace(LINE_DELAY_MILLIS);
         }
+        Terminal.flush();
     }
 
     /**
@@ -57,43 +48,57 @@ public static void readFile(String fileName) {
      * @param fileName The file path (without .txt extension)
      */
     public static void readFileColor(String fileName) {
-        String filePath = fileName + ".txt";
-
-        try (InputStream inputStream = FileReaderUtil.class.getClassLoader().getResourceAsStream(filePath);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-
-            if (inputStream == null) {
-                System.out.println("The file could not be found: " + filePath);
-                return;
-            }
+        readFileColor(fileName, ColorRules.DEFAULT);
+    }
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                for (char c : line.toCharArray()) {
-                    // Apply color based on character
-                    if (c == '+') {
-                        System.out.print(ConsoleUtils.RED);
-                    } else if (c == '$' || c == 'X') {
-                        System.out.print(ConsoleUtils.YELLOW);
-                    } else {
-                        System.out.print(ConsoleUtils.RESET);
-                    }
+    /**
+     * Reads a text file and displays it with custom character-based color coding.
+     * Each line is drawn as precompiled runs of equal color, so the terminal
+     * only receives a color escape where the color actually changes.
+     *
+     * @param fileName The file path (without .txt extension)
+     * @param rules Character color rules for this asset
+     */
+    public static void readFileColor(String fileName, ColorRules rules) {
+        Asset asset = loadAsset(fileName);
+        if (asset == null) {
+            return;
+        }
 
-                    System.out.print(c);
-                    System.out.print(ConsoleUtils.RESET);
-                }
+        ColorSpans spans = spansFor(asset, rules);
+        Screen screen = Terminal.getScreen();
+        for (int i = 0; i < spans.getLineCount(); i++) {
+            spans.drawLine(screen, i);
+            Terminal.println();
+            Terminal.flushFrame();
+            TimelineScheduler.pace(LINE_DELAY_MILLIS);
+        }
+        Terminal.flush();
+    }
 
-                System.out.println();
+    /**
+     * Compiles (once) the color spans of an asset for the given rules.
+     *
+     * @param fileName The file path (without .txt extension)
+     * @param rules Character color rules
+     * @return The compiled spans, or null if the file does not exist
+     */
+    public static ColorSpans prepareColor(String fileName, ColorRules rules) {
+        Asset asset = AssetCache.get(fileName);
+        return asset == null ? null : spansFor(asset, rules);
+    }
 
-                try {
-                    Thread.sleep(5);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("An error occurred while reading the file: " + e.getMessage());
+    /**
+     * Gets the compiled spans of a loaded asset, compiling them if the asset is new.
+     */
+    private static ColorSpans spansFor(Asset asset, ColorRules rules) {
+        String key = asset.getName() + '\u0000' + rules.getSpec();
+        ColorSpans spans = colorSpans.get(key);
+        if (spans == null || spans.getAsset() != asset) {
+            spans = ColorSpans.compile(asset, rules);
+            colorSpans.put(key, spans);
         }
+        return spans;
     }
 
     /**
@@ -103,22 +108,49 @@ public static void readFileColor(String fileName) {
      * @param fileName The file path (without .txt extension)
      */
     public static void readFileQuick(String fileName) {
-        String filePath = fileName + ".txt";
+        Asset asset = loadAsset(fileName);
+        if (asset == null) {
+            return;
+        }
 
-        try (InputStream inputStream = FileReaderUtil.class.getClassLoader().getResourceAsStream(filePath);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
+        for (int i = 0; i < asset.getLineCount(); i++) {
+            Terminal.println(asset.getLine(i));
+        }
+        Terminal.flush();
+    }
 
-            if (inputStream == null) {
-                System.out.println("The file could not be found: " + filePath);
-                return;
-            }
+    /**
+     * Computes how long readFile or readFileColor paces for a given file.
+     *
+     * @param fileName The file path (without .txt extension)
+     * @return Nominal duration in milliseconds, 0 if the file cannot be read
+     */
+    public static long readFileDuration(String fileName) {
+        Asset asset = AssetCache.get(fileName);
+        return asset == null ? 0 : (long) asset.getLineCount() * LINE_DELAY_MILLIS;
+    }
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                System.out.println(line);
-            }
-        } catch (IOException e) {
-            System.out.println("An error occurred while reading the file: " + e.getMessage());
+    /**
+     * Fetches an asset from the cache for an effect, reporting missing files on
+     * screen. Every effect that displays a file goes through here, so each read
+     * shows up as a ResourceLoad event.
+     */
+    private static Asset loadAsset(String fileName) {
+        ResourceLoadEvent event = new ResourceLoadEvent();
+        event.begin();
+        long loadsBefore = AssetCache.getLoadCount();
+        Asset asset = AssetCache.get(fileName);
+        event.end();
+        if (event.shouldCommit()) {
+            event.resource = fileName;
+            event.cached = AssetCache.getLoadCount() == loadsBefore;
+            event.bytes = asset == null ? 0 : asset.getFootprint();
+            event.commit();
+        }
+        if (asset == null) {
+            Terminal.println("The file could not be found: " + fileName + ".txt");
+            Terminal.flush();
         }
+        return asset;
     }
 }
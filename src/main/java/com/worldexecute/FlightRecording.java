@@ -0,0 +1,38 @@
+package com.worldexecute;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * FlightRecording - Java Flight Recorder session covering the whole show.
+ * Uses the JDK's "profile" settings, so the show's own events (cues,
+ * resource loads, flushes, audio buffer fills) land next to GC, safepoint
+ * and thread events. The recording is written when the JVM exits, however
+ * the show ends.
+ */
+public class FlightRecording {
+
+    /**
+     * Starts recording into a file that is written on exit.
+     *
+     * @param destination The .jfr file
+     * @return The recording, or null if Flight Recorder is not available
+     */
+    public static Recording start(Path destination) {
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("World.Execute(Me)");
+            recording.setToDisk(true);
+            recording.setDestination(destination);
+            recording.setDumpOnExit(true);
+            recording.start();
+            return recording;
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("Flight recording disabled: " + e.getMessage());
+            return null;
+        }
+    }
+}
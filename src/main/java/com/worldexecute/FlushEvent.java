@@ -0,0 +1,19 @@
+package com.worldexecute;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * FlushEvent - Flight recorder event for a frame written to the output sink.
+ */
+@Name("com.worldexecute.Flush")
+@Label("Frame Flush")
+@Category("World.Execute(Me)")
+final class FlushEvent extends jdk.jfr.Event {
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,253 @@
+package com.worldexecute;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * FrameRing - Bounded lock-free ring of encoded frames between one producer and one consumer.
+ * The show thread fills a slot with the bytes of a frame and publishes it;
+ * the renderer thread takes every published slot at once and releases them
+ * after writing. Each side only ever writes its own index, so publishing and
+ * releasing are single ordered stores and neither side takes a lock.
+ *
+ * Slots keep their byte arrays between frames, so once every slot has grown
+ * to the size of a typical frame nothing is allocated per frame.
+ *
+ * Features:
+ * - Capacity rounded up to a power of two, indexed by mask
+ * - Producer waits (and counts a stall) only when every slot is in use
+ * - Consumer parks while the ring is empty and is woken on publish
+ * - Current and maximum depth for sizing the ring
+ * - Closing releases a waiting producer; frames offered after that are dropped
+ */
+public final class FrameRing {
+
+    private static final int INITIAL_SLOT_BYTES = 4096;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final byte[][] slots;
+    private final int[] lengths;
+    private final int mask;
+
+    /** Sequence of the next slot the consumer will read; written by the consumer only. */
+    private final AtomicLong head = new AtomicLong();
+    /** Sequence of the next slot the producer will publish; written by the producer only. */
+    private final AtomicLong tail = new AtomicLong();
+
+    private volatile Thread parkedProducer;
+    private volatile Thread parkedConsumer;
+    private volatile boolean closed;
+    private volatile int maxDepth;
+
+    // Producer-only state
+    private boolean filling;
+    private int fillLength;
+
+    /**
+     * Creates a ring.
+     *
+     * @param capacity Minimum number of frames that can be queued; rounded up to a power of two
+     */
+    public FrameRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new byte[size][];
+        this.lengths = new int[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new byte[INITIAL_SLOT_BYTES];
+        }
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Gets how many published frames the consumer has not released yet.
+     */
+    public int getDepth() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * Gets the largest depth seen when a frame was published.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Starts measuring the maximum depth afresh.
+     */
+    public void resetMaxDepth() {
+        maxDepth = 0;
+    }
+
+    // --- Producer side ---
+
+    /**
+     * Appends bytes to the frame being filled, first waiting for a free slot if this
+     * starts a new frame and the ring is full. Once the ring is closed the bytes are
+     * dropped, since the slot may still be in the consumer's hands.
+     *
+     * @return Nanoseconds spent waiting for a free slot, 0 if there was no stall
+     */
+    public long append(byte[] data, int offset, int length) {
+        if (closed) {
+            filling = false;
+            return 0;
+        }
+        long stalled = 0;
+        long sequence = tail.get();
+        if (!filling) {
+            if (sequence - head.get() >= slots.length) {
+                stalled = awaitSpace(sequence);
+                if (sequence - head.get() >= slots.length) {
+                    // Closed while full: there is no slot to write into
+                    return stalled;
+                }
+            }
+            filling = true;
+            fillLength = 0;
+        }
+        int index = (int) sequence & mask;
+        byte[] slot = slots[index];
+        if (fillLength + length > slot.length) {
+            slot = Arrays.copyOf(slot, Math.max(slot.length * 2, fillLength + length));
+            slots[index] = slot;
+        }
+        System.arraycopy(data, offset, slot, fillLength, length);
+        fillLength += length;
+        return stalled;
+    }
+
+    /**
+     * Hands the frame being filled to the consumer. Does nothing if nothing was
+     * appended, or if the ring has been closed since.
+     *
+     * @return true if a frame was published
+     */
+    public boolean publish() {
+        if (!filling || closed) {
+            filling = false;
+            return false;
+        }
+        long sequence = tail.get();
+        lengths[(int) sequence & mask] = fillLength;
+        filling = false;
+        // The ordered store makes the slot contents visible before the new tail
+        tail.lazySet(sequence + 1);
+        int depth = (int) (sequence + 1 - head.get());
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+        Thread consumer = parkedConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+     * Waits until the consumer has released every published frame or the ring is closed.
+     */
+    public void awaitEmpty() {
+        while (!closed && head.get() < tail.get()) {
+            parkedProducer = Thread.currentThread();
+            if (head.get() < tail.get()) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+            parkedProducer = null;
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    private long awaitSpace(long sequence) {
+        long start = System.nanoTime();
+        while (sequence - head.get() >= slots.length && !closed) {
+            parkedProducer = Thread.currentThread();
+            // Re-check after announcing, so a release in between is not slept through
+            if (sequence - head.get() >= slots.length) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+            parkedProducer = null;
+        }
+        return Math.max(1, System.nanoTime() - start);
+    }
+
+    // --- Consumer side ---
+
+    /**
+     * Waits until at least one frame after the given sequence has been published.
+     *
+     * @param next Sequence of the first frame not yet consumed
+     * @return Sequence after the last published frame, or -1 once the ring is closed and drained
+     */
+    public long awaitPublished(long next) {
+        long published;
+        while ((published = tail.get()) == next) {
+            if (closed) {
+                return tail.get() == next ? -1 : tail.get();
+            }
+            parkedConsumer = Thread.currentThread();
+            if (tail.get() == next && !closed) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+            parkedConsumer = null;
+        }
+        return published;
+    }
+
+    /**
+     * Gets the bytes of a published frame; valid until it is released.
+     */
+    public byte[] frame(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    /**
+     * Gets the length of a published frame.
+     */
+    public int length(long sequence) {
+        return lengths[(int) sequence & mask];
+    }
+
+    /**
+     * Gives every frame before the given sequence back to the producer.
+     *
+     * @param upTo Sequence after the last consumed frame
+     */
+    public void release(long upTo) {
+        head.lazySet(upTo);
+        Thread producer = parkedProducer;
+        if (producer != null) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    /**
+     * Stops accepting frames: the consumer drains what was published and then
+     * sees the end, a waiting producer returns, and later appends are dropped.
+     */
+    public void close() {
+        closed = true;
+        Thread consumer = parkedConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        Thread producer = parkedProducer;
+        if (producer != null) {
+            LockSupport.unpark(producer);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.worldexecute;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * HeadlessShow - Runs the show without audio on a virtual clock.
+ * Frames go to any OutputSink and every cue is reported with the show
+ * timestamp it was released at, so a full run can be timed, profiled or
+ * diffed against a previous capture without waiting for the song.
+ *
+ * Features:
+ * - Time scale 0 renders the whole show as fast as possible
+ * - Starting at any cue, with the screen pre-rendered up to it
+ * - Per-cue virtual timestamps, a throughput summary and cue start latencies
+ * - Layered cue sheets, with each layer's cues reported as they start
+ */
+public class HeadlessShow {
+
+    /**
+     * Plays a timeline headlessly.
+     *
+     * @param timeline The cues to play
+     * @param sink Destination for rendered frames; closed when the show ends
+     * @param timeScale Real seconds per show second (0 = instant)
+     * @param report Where cue timestamps and the summary are printed
+     */
+    public static void run(Timeline timeline, OutputSink sink, double timeScale, PrintStream report) {
+        run(timeline, sink, timeScale, report, 0);
+    }
+
+    /**
+     * Plays a timeline headlessly from the given cue on. The cues before it are
+     * pre-rendered (see WorldExecute.prerender) and the run starts with one frame
+     * showing the screen as it is at that cue.
+     *
+     * @param timeline The cues to play
+     * @param sink Destination for rendered frames; closed when the show ends
+     * @param timeScale Real seconds per show second (0 = instant)
+     * @param report Where cue timestamps and the summary are printed
+     * @param fromIndex Index of the first cue to play
+     */
+    public static void run(Timeline timeline, OutputSink sink, double timeScale, PrintStream report, int fromIndex) {
+        long realStart = System.nanoTime();
+        Terminal.setSink(sink);
+        WorldExecute.prerender(timeline, fromIndex);
+        TerminalRenderer renderer = Terminal.getRenderer();
+
+        // Spinning buys nothing when deadlines are jumped to
+        TimelineScheduler scheduler = new TimelineScheduler(
+            timeScale == 0 ? 0 : TimelineScheduler.defaultSpinNanos(), new VirtualClock(timeScale));
+        TimelineScheduler.setShared(scheduler);
+        scheduler.startAt(fromIndex < timeline.size() ? timeline.get(fromIndex).getStartMillis() * 1_000_000L : 0);
+        WorldExecute.play(timeline, fromIndex, (cue, index) -> {
+            String chapter = timeline.chapterStartingAt(index);
+            synchronized (report) {
+                if (chapter != null) {
+                    report.println("-- " + chapter);
+                }
+                report.println(formatTimestamp(scheduler.getElapsedNanos()) + "  " + cue);
+            }
+        });
+        long showNanos = scheduler.getElapsedNanos();
+        Terminal.restore();
+        long realNanos = System.nanoTime() - realStart;
+
+        try {
+            sink.close();
+        } catch (IOException e) {
+            System.err.println("Error closing output: " + e.getMessage());
+        }
+
+        ShowMetrics metrics = ShowMetrics.shared();
+        report.println("Rendered " + (timeline.size() - fromIndex) + " cues: show time " + formatTimestamp(showNanos)
+            + ", real time " + realNanos / 1_000_000 + " ms, "
+            + renderer.getBytesWritten() + " bytes in " + renderer.getFrameCount() + " frames"
+            + (metrics.getFramesDropped() > 0 ? " (" + metrics.getFramesDropped() + " dropped)" : ""));
+        if (metrics.getTerminalWriteCount() > 0) {
+            report.println("  render queue: " + metrics.getTerminalWriteCount() + " writes, max depth "
+                + metrics.getRenderQueueMaxDepth() + "/" + metrics.getRenderQueueCapacity() + ", "
+                + metrics.getProducerStallCount() + " producer stalls");
+        }
+        if (metrics.getLateDeadlineCount() > 0) {
+            report.println(String.format(Locale.ROOT, "  late deadlines: %d, worst %.3f ms",
+                metrics.getLateDeadlineCount(), metrics.getMaxDeadlineLatenessMillis()));
+        }
+        report.println("  asset cache: " + AssetCache.getLoadCount() + " loads, "
+            + AssetCache.getTotalBytes() / 1024 + " KB held");
+        for (String line : metrics.getCueLatencySummary()) {
+            report.println("  " + line);
+        }
+    }
+
+    /**
+     * Formats a show position as m:ss.SSS.
+     */
+    static String formatTimestamp(long nanos) {
+        long millis = nanos / 1_000_000;
+        return String.format("%d:%02d.%03d", millis / 60_000, millis / 1000 % 60, millis % 1000);
+    }
+}
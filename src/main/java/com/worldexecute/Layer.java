@@ -0,0 +1,185 @@
+package com.worldexecute;
+
+import java.util.SplittableRandom;
+
+/**
+ * Layer - A screen region that an effect can draw into while other effects run.
+ * Declared in the cue sheet ("layer name=panel row=2 col=80 width=38 height=20 z=1")
+ * and used by cues with a matching layer attribute. Each layer has its own
+ * Screen the size of its region; the effect running on it draws there with
+ * the usual Terminal calls, and every flush publishes a copy that the
+ * Compositor merges into the terminal frame in z order.
+ *
+ * The working screen belongs to the layer's effect thread; only the published
+ * copy is shared, and it is guarded by the layer's monitor. The layer also
+ * carries the random stream its effects draw from (see SessionRandom.derive),
+ * so a layer draws the same values whichever thread runs it.
+ *
+ * Features:
+ * - Position, size and z order; regions may overlap and extend past the screen
+ * - Opaque, or transparent where the layer has default-colored blanks
+ * - Hidden until its first cue starts and again after a clear
+ */
+public final class Layer {
+
+    private final String name;
+    private final int row;
+    private final int col;
+    private final int z;
+    private final boolean transparent;
+    private final Screen screen;
+    private final CellGrid published;
+
+    private SplittableRandom random;
+    private boolean visible;
+    private boolean dirty;
+    private int pendingScroll;
+    private boolean pendingClear;
+    private int cursorRow;
+    private int cursorCol;
+
+    /**
+     * Creates a layer.
+     *
+     * @param name Name cues refer to it by
+     * @param row Screen row of its top edge
+     * @param col Screen column of its left edge
+     * @param width Width in columns
+     * @param height Height in rows
+     * @param z Stacking order; higher layers cover lower ones
+     * @param transparent Whether default-colored blanks show what is underneath
+     */
+    public Layer(String name, int row, int col, int width, int height, int z, boolean transparent) {
+        this.name = name;
+        this.row = row;
+        this.col = col;
+        this.z = z;
+        this.transparent = transparent;
+        this.screen = new Screen(width, height);
+        this.published = new CellGrid(width, height);
+    }
+
+    /**
+     * Wraps an existing full-size screen as the bottom layer of a composition.
+     */
+    Layer(Screen screen) {
+        this.name = "";
+        this.row = 0;
+        this.col = 0;
+        this.z = Integer.MIN_VALUE;
+        this.transparent = false;
+        this.screen = screen;
+        this.published = new CellGrid(screen.getWidth(), screen.getHeight());
+        this.visible = true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    public boolean isTransparent() {
+        return transparent;
+    }
+
+    /**
+     * Gets the working screen effects on this layer draw into.
+     */
+    public Screen getScreen() {
+        return screen;
+    }
+
+    /**
+     * Gets the generator effects on this layer draw from. Set up by reset() and
+     * confined to whichever thread is running the layer's cues.
+     */
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Publishes the working screen for the next composition. Called by the layer's
+     * effect thread where a flush would otherwise write to the terminal.
+     */
+    public synchronized void publish() {
+        boolean cleared = screen.takePendingClear();
+        int scrolled = screen.takePendingScroll();
+        if (cleared) {
+            pendingClear = true;
+            pendingScroll = scrolled;
+        } else {
+            pendingScroll += scrolled;
+        }
+        published.copyFrom(screen.getBackGrid());
+        cursorRow = screen.getCursorRow();
+        cursorCol = screen.getCursorCol();
+        dirty = true;
+    }
+
+    /**
+     * Shows the layer from the next composition on.
+     */
+    public synchronized void show() {
+        dirty |= !visible;
+        visible = true;
+    }
+
+    /**
+     * Hides the layer from the next composition on.
+     */
+    public synchronized void hide() {
+        dirty |= visible;
+        visible = false;
+    }
+
+    /**
+     * Blanks the working and published screens, hides the layer and restarts its
+     * random stream from the session seed, ready for a new show.
+     */
+    public synchronized void reset() {
+        random = SessionRandom.derive("layer:" + name);
+        screen.clear();
+        screen.takePendingClear();
+        published.clear();
+        visible = false;
+        dirty = false;
+        pendingScroll = 0;
+        pendingClear = false;
+    }
+
+    /**
+     * Draws the published copy into a composite grid at the layer's position.
+     *
+     * @return true if anything changed since the last call
+     */
+    synchronized boolean composeInto(CellGrid target) {
+        if (visible) {
+            target.blit(published, row, col, transparent);
+        }
+        boolean changed = dirty;
+        dirty = false;
+        return changed;
+    }
+
+    /**
+     * Hands the scrolling, clearing and cursor position published by the bottom
+     * layer on to the composite screen.
+     */
+    synchronized void takePendingInto(Screen composite) {
+        composite.addPending(pendingScroll, pendingClear);
+        composite.moveCursor(cursorRow, cursorCol);
+        pendingScroll = 0;
+        pendingClear = false;
+    }
+}
@@ -1,9 +1,10 @@
 package com.worldexecute;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.Scanner;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Main - Do I need to explain?
@@ -14,16 +15,134 @@
  */
 public class Main {
 
+    /** Candidate soundtracks, in order of preference. MP3 is decoded once and cached. */
+    private static final String[] TRACKS = {
+        "audioFiles/worldexecute.wav",
+        "audioFiles/worldexecute.mp3"
+    };
+
+    /** Longest wait for the JIT warm-up after the intro before starting the show anyway. */
+    private static final long WARMUP_TIMEOUT_MILLIS = 3000;
+
     public static void main(String[] args) {
+        boolean headless = false;
+        double timeScale = 0;
+        String sinkSpec = "stdout";
+        boolean timeScaleSet = false;
+        int servePort = -1;
+        String serveHost = null;
+        String recordPath = null;
+        String replayPath = null;
+        String startAt = null;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--headless")) {
+                headless = true;
+            } else if (arg.equals("--time-scale") && i + 1 < args.length) {
+                try {
+                    timeScale = Double.parseDouble(args[++i]);
+                    timeScaleSet = true;
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid time scale: " + args[i]);
+                    return;
+                }
+            } else if (arg.equals("--sink") && i + 1 < args.length) {
+                sinkSpec = args[++i];
+            } else if (arg.equals("--serve") && i + 1 < args.length) {
+                String address = args[++i];
+                int colon = address.lastIndexOf(':');
+                if (colon >= 0) {
+                    serveHost = address.substring(0, colon);
+                    address = address.substring(colon + 1);
+                }
+                try {
+                    servePort = Integer.parseInt(address);
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid port: " + args[i]);
+                    return;
+                }
+            } else if (arg.equals("--jfr") && i + 1 < args.length) {
+                FlightRecording.start(Paths.get(args[++i]));
+            } else if (arg.equals("--record") && i + 1 < args.length) {
+                recordPath = args[++i];
+            } else if (arg.equals("--replay") && i + 1 < args.length) {
+                replayPath = args[++i];
+            } else if (arg.equals("--start-at") && i + 1 < args.length) {
+                startAt = args[++i];
+            } else if (arg.equals("--seed") && i + 1 < args.length) {
+                try {
+                    SessionRandom.reseed(Long.parseLong(args[++i]));
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid seed: " + args[i]);
+                    return;
+                }
+            } else {
+                System.err.println("Unknown option: " + arg);
+                System.err.println("Usage: Main [--seed <n>] [--record <file.cast>] [--jfr <file.jfr>]"
+                    + " [--start-at <chapter|s|m:ss>] [--serve [<host>:]<port> | --headless"
+                    + " [--time-scale <real s per show s>] [--sink stdout|null|buffer|file:<path>]]");
+                System.err.println("       Main --replay <file.cast> [--start-at <chapter|s|m:ss>]"
+                    + " [--time-scale <real s per show s>] [--sink <sink>]");
+                return;
+            }
+        }
+
+        ShowMetrics.register();
+
+        if (replayPath != null) {
+            runReplay(replayPath, startAt, timeScaleSet ? timeScale : 1, sinkSpec);
+            return;
+        }
+        if (servePort >= 0) {
+            runServer(serveHost, servePort, recordPath, startAt);
+            return;
+        }
+        if (headless) {
+            runHeadless(timeScale, sinkSpec, recordPath, startAt);
+            return;
+        }
+
+        // Open the audio, compile the show and warm up the JIT while the password is typed
+        AudioClock audioClock = new AudioClock();
+        Prewarm prewarm = Prewarm.start(findTrack(), audioClock, startAt);
+        StreamingAudioPlayer player = prewarm.getPlayer();
+
         // Display intro
         FileReaderUtil.readFile("textFiles/user");
-        System.out.print(">");
+        Terminal.print(">");
+        Terminal.flush();
 
         // Get password
         Scanner scanner = new Scanner(System.in);
         String pass = scanner.nextLine();
 
-        if (!pass.equals("run world.exec")) {
+        // The terminal echoed the input behind the renderer's back
+        Terminal.println();
+        Terminal.invalidate();
+
+        if (!pass.equals(BroadcastServer.PASSWORD)) {
+            if (player != null) {
+                player.stop();
+            }
+            Terminal.restore();
+            scanner.close();
+            return;
+        }
+
+        // The cue sheet was compiled during the prompt so the show starts on time
+        Timeline timeline;
+        try {
+            timeline = prewarm.awaitTimeline();
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            System.err.println("Could not load cue sheet: " + e.getMessage());
+            timeline = null;
+        }
+        int startIndex = timeline == null ? -1 : resolveStart(timeline, startAt);
+        if (startIndex < 0) {
+            if (player != null) {
+                player.stop();
+            }
+            Terminal.restore();
             scanner.close();
             return;
         }
@@ -39,36 +158,240 @@ public static void main(String[] args) {
         }
 
         ConsoleUtils.clearConsole();
+        prewarm.awaitWarmup(WARMUP_TIMEOUT_MILLIS);
+        WorldExecute.prerender(timeline, startIndex);
 
-        // Create thread pool for concurrent execution
-        ExecutorService executor = Executors.newFixedThreadPool(2);
+        // The music is the master clock: cues are released when the audio reaches them
+        TimelineScheduler.setShared(new TimelineScheduler(TimelineScheduler.defaultSpinNanos(), audioClock));
+        TimelineScheduler.shared().startAt(timeline.get(startIndex).getStartMillis() * 1_000_000L);
+        OutputSink recorder = null;
+        if (recordPath != null) {
+            recorder = startRecording(recordPath, Terminal.getSink());
+        }
 
-        // Audio playback task
-        executor.submit(() -> {
-            // Note: For MP3 files, convert to WAV or use JavaFX MediaPlayer
-             AudioPlayer player = new AudioPlayer("src/main/resources/audioFiles/worldexecute.wav");
+        // The line is already open and primed, so this only starts it
+        if (player == null) {
+            System.err.println("Audio playback disabled: no worldexecute.wav or worldexecute.mp3 in audioFiles/");
+            audioClock.detach();
+        } else {
+            ShowMetrics.shared().attachAudio(player, audioClock);
             player.play();
+        }
+
+        // The show plays on this thread, which pre-rendered it and drew the song info,
+        // so it draws from the same random stream as a run from the start
+        WorldExecute.play(timeline, startIndex);
+
+        // Let the track play out; its future completes when the line has drained
+        if (player != null) {
             player.waitForCompletion();
+        }
 
-            // If no audio file, just return
-            System.err.println("Audio playback disabled. To enable:");
-            System.err.println("1. Convert ghost.mp3 to ghost.wav, or");
-            System.err.println("2. Implement MP3 support using JavaFX MediaPlayer");
-        });
+        Terminal.restore();
+        closeRecording(recorder);
+        scanner.close();
+    }
 
-        // Animation task
-        executor.submit(() -> {
-            WorldExecute.worldExecuteMe();
-        });
+    /**
+     * Plays the show without a password prompt or audio on a virtual clock.
+     * Cue timestamps and a summary are reported on stderr.
+     *
+     * @param timeScale Real seconds per show second (0 = instant)
+     * @param sinkSpec Output sink spec, see OutputSink.parse
+     * @param recordPath File to record an asciicast into, or null
+     * @param startAt Chapter or time to start at, or null for the start
+     */
+    private static void runHeadless(double timeScale, String sinkSpec, String recordPath, String startAt) {
+        OutputSink sink;
+        Timeline timeline;
+        int startIndex;
+        try {
+            timeline = CueSheet.loadDefault();
+            startIndex = resolveStart(timeline, startAt);
+            if (startIndex < 0) {
+                return;
+            }
+            sink = OutputSink.parse(sinkSpec);
+            if (recordPath != null) {
+                Screen screen = Terminal.getScreen();
+                sink = new CastRecorder(Paths.get(recordPath), screen.getWidth(), screen.getHeight(), sink);
+            }
+        } catch (IOException | IllegalArgumentException | UncheckedIOException e) {
+            System.err.println("Could not start headless run: " + e.getMessage());
+            return;
+        }
+        HeadlessShow.run(timeline, sink, timeScale, System.err, startIndex);
+    }
 
-        // Shutdown executor and wait for completion
-        executor.shutdown();
+    /**
+     * Replays a recording made with --record, without computing any effect.
+     *
+     * @param path The .cast file
+     * @param startAt Chapter or time to start at, or null for the start
+     * @param timeScale Real seconds per show second (0 = instant)
+     * @param sinkSpec Output sink spec, see OutputSink.parse
+     */
+    private static void runReplay(String path, String startAt, double timeScale, String sinkSpec) {
+        CastPlayer player;
+        OutputSink sink;
+        long startAtMillis = startAt == null ? 0 : Timeline.parsePosition(startAt);
+        if (startAtMillis < 0) {
+            // Not a time: look the chapter up in the cue sheet the recording was made from
+            try {
+                Timeline timeline = CueSheet.loadDefault();
+                int index = resolveStart(timeline, startAt);
+                if (index < 0) {
+                    return;
+                }
+                startAtMillis = timeline.get(index).getStartMillis();
+            } catch (IllegalArgumentException | UncheckedIOException e) {
+                System.err.println("Could not load cue sheet: " + e.getMessage());
+                return;
+            }
+        }
         try {
-            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            player = new CastPlayer(Paths.get(path));
+            sink = OutputSink.parse(sinkSpec);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not start replay: " + e.getMessage());
+            return;
+        }
+        ShowClock clock = timeScale == 1 ? new SystemClock() : new VirtualClock(timeScale);
+        TimelineScheduler scheduler = new TimelineScheduler(
+            timeScale == 0 ? 0 : TimelineScheduler.defaultSpinNanos(), clock);
+        player.play(sink, scheduler, startAtMillis * 1_000_000L);
+        try {
+            sink.close();
+        } catch (IOException e) {
+            System.err.println("Error closing output: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends all further frames through an asciicast recorder as well as to the current sink.
+     *
+     * @return The recorder, or null if the file could not be created
+     */
+    private static OutputSink startRecording(String path, OutputSink tee) {
+        Screen screen = Terminal.getScreen();
+        try {
+            OutputSink recorder = new CastRecorder(Paths.get(path), screen.getWidth(), screen.getHeight(), tee);
+            Terminal.setSink(recorder);
+            return recorder;
+        } catch (IOException e) {
+            System.err.println("Recording disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void closeRecording(OutputSink recorder) {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            System.err.println("Error closing recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Finds the cue a --start-at position refers to, reporting unknown positions on stderr.
+     *
+     * @param timeline The show
+     * @param startAt Chapter name or time, or null for the start
+     * @return Index of the first cue to play, or -1 if the position is invalid
+     */
+    private static int resolveStart(Timeline timeline, String startAt) {
+        if (startAt == null || timeline.size() == 0) {
+            return 0;
+        }
+        int index = timeline.indexOfPosition(startAt);
+        if (index < 0) {
+            System.err.println("Invalid position: " + startAt + " (expected seconds, m:ss or one of "
+                + String.join(", ", timeline.getChapterNames()) + ")");
+        }
+        return index;
+    }
+
+    /**
+     * Plays the show once for every viewer connected over TCP.
+     * Each connection gets the intro and must enter the password; the show
+     * starts when the first viewer is in and later viewers join mid-show.
+     *
+     * @param host Host to bind to, or null for loopback only
+     * @param port TCP port to listen on
+     * @param recordPath File to record an asciicast into, or null
+     * @param startAt Chapter or time to start at, or null for the start
+     */
+    private static void runServer(String host, int port, String recordPath, String startAt) {
+        Timeline timeline;
+        int startIndex;
+        BroadcastServer server;
+        try {
+            timeline = CueSheet.loadDefault();
+            startIndex = resolveStart(timeline, startAt);
+            if (startIndex < 0) {
+                return;
+            }
+            server = new BroadcastServer(host, port, loginPrompt());
+        } catch (IOException | IllegalArgumentException | UncheckedIOException e) {
+            System.err.println("Could not start server: " + e.getMessage());
+            return;
+        }
+        server.start();
+        System.err.println("Serving on port " + server.getPort() + ", waiting for the first viewer");
+
+        try {
+            server.awaitFirstViewer();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            server.finish();
+            return;
         }
 
-        scanner.close();
+        Terminal.setSink(new BroadcastSink(server));
+        WorldExecute.prerender(timeline, startIndex);
+        TimelineScheduler.shared().startAt(timeline.get(startIndex).getStartMillis() * 1_000_000L);
+        OutputSink recorder = null;
+        if (recordPath != null) {
+            recorder = startRecording(recordPath, Terminal.getSink());
+        }
+        WorldExecute.play(timeline, startIndex);
+        Terminal.restore();
+        closeRecording(recorder);
+        server.finish();
+
+        System.err.println("Show finished: " + server.getFrameCount() + " frames, "
+            + server.getResyncCount() + " resyncs, " + server.getDroppedCount() + " viewers dropped");
+    }
+
+    /**
+     * Builds the intro and password prompt sent to each new connection.
+     */
+    private static byte[] loginPrompt() {
+        StringBuilder prompt = new StringBuilder();
+        Asset intro = AssetCache.get("textFiles/user");
+        if (intro != null) {
+            for (int i = 0; i < intro.getLineCount(); i++) {
+                prompt.append(intro.getLine(i)).append("\r\n");
+            }
+        }
+        prompt.append('>');
+        return prompt.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds the first soundtrack that exists on the classpath or the filesystem.
+     *
+     * @return Track location, or null if there is none
+     */
+    private static String findTrack() {
+        for (String track : TRACKS) {
+            if (StreamingAudioPlayer.isAvailable(track)) {
+                return track;
+            }
+        }
+        return null;
     }
 }
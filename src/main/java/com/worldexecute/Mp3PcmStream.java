@@ -0,0 +1,185 @@
+package com.worldexecute;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.JavaLayerException;
+import javazoom.jl.decoder.SampleBuffer;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Mp3PcmStream - Decodes MP3 frame by frame into 16-bit little-endian PCM using JLayer.
+ * Only one frame is decoded ahead of the reader, so decoding cost is spread
+ * over playback and the first samples are ready after a single frame.
+ * Decoded bytes can optionally be teed into a PcmCache entry, which is
+ * published once the whole track has been decoded.
+ *
+ * Features:
+ * - Incremental decoding (about 1152 samples per frame)
+ * - Format known after the first frame
+ * - Optional write-through to the on-disk PCM cache
+ */
+public class Mp3PcmStream extends InputStream {
+
+    private final Bitstream bitstream;
+    private final Decoder decoder = new Decoder();
+    private final AudioFormat format;
+    private PcmCache.Writer cacheWriter;
+
+    private byte[] frameBytes = new byte[0];
+    private int frameLength;
+    private int framePosition;
+    private boolean endOfStream;
+
+    /**
+     * Opens an MP3 stream and decodes its first frame.
+     *
+     * @param in Compressed MP3 data
+     * @param cacheKey Key to cache the decoded track under, or null to skip caching
+     * @throws IOException If the data is not a decodable MP3
+     */
+    public Mp3PcmStream(InputStream in, String cacheKey) throws IOException {
+        this.bitstream = new Bitstream(in);
+        Header first = readHeader();
+        if (first == null) {
+            closeBitstream();
+            throw new IOException("No MP3 frames found");
+        }
+        SampleBuffer samples = decode(first);
+        this.format = new AudioFormat(samples.getSampleFrequency(), 16, samples.getChannelCount(), true, false);
+
+        PcmCache.Writer writer = null;
+        if (cacheKey != null) {
+            try {
+                writer = PcmCache.create(cacheKey, samples.getSampleFrequency(), samples.getChannelCount());
+            } catch (IOException e) {
+                System.err.println("Audio cache disabled: " + e.getMessage());
+            }
+        }
+        this.cacheWriter = writer;
+        store(samples);
+    }
+
+    /**
+     * Gets the PCM format of the decoded data.
+     */
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] data, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (framePosition == frameLength) {
+            if (endOfStream || !nextFrame()) {
+                return -1;
+            }
+        }
+        int chunk = Math.min(length, frameLength - framePosition);
+        System.arraycopy(frameBytes, framePosition, data, offset, chunk);
+        framePosition += chunk;
+        return chunk;
+    }
+
+    @Override
+    public int available() {
+        return frameLength - framePosition;
+    }
+
+    /**
+     * Closes the stream. A cache entry is only kept if the track was decoded to the end.
+     */
+    @Override
+    public void close() throws IOException {
+        if (cacheWriter != null && !endOfStream) {
+            cacheWriter.discard();
+        }
+        closeBitstream();
+    }
+
+    /**
+     * Decodes the next frame into the frame buffer.
+     *
+     * @return false at the end of the track
+     */
+    private boolean nextFrame() throws IOException {
+        Header header = readHeader();
+        if (header == null) {
+            endOfStream = true;
+            if (cacheWriter != null) {
+                try {
+                    cacheWriter.commit();
+                } catch (IOException e) {
+                    System.err.println("Could not save decoded audio: " + e.getMessage());
+                }
+            }
+            return false;
+        }
+        store(decode(header));
+        return true;
+    }
+
+    private Header readHeader() throws IOException {
+        try {
+            return bitstream.readFrame();
+        } catch (JavaLayerException e) {
+            throw new IOException("Corrupt MP3 stream: " + e.getMessage(), e);
+        }
+    }
+
+    private SampleBuffer decode(Header header) throws IOException {
+        try {
+            return (SampleBuffer) decoder.decodeFrame(header, bitstream);
+        } catch (JavaLayerException e) {
+            throw new IOException("Could not decode MP3 frame: " + e.getMessage(), e);
+        } finally {
+            bitstream.closeFrame();
+        }
+    }
+
+    /**
+     * Converts decoded samples to little-endian bytes, reusing the frame buffer.
+     */
+    private void store(SampleBuffer samples) {
+        short[] buffer = samples.getBuffer();
+        int count = samples.getBufferLength();
+        if (frameBytes.length < count * 2) {
+            frameBytes = new byte[count * 2];
+        }
+        for (int i = 0; i < count; i++) {
+            frameBytes[2 * i] = (byte) buffer[i];
+            frameBytes[2 * i + 1] = (byte) (buffer[i] >> 8);
+        }
+        frameLength = count * 2;
+        framePosition = 0;
+        if (cacheWriter != null) {
+            // A full disk only costs the cache, never the playback
+            try {
+                cacheWriter.write(frameBytes, 0, frameLength);
+            } catch (IOException e) {
+                System.err.println("Audio cache disabled: " + e.getMessage());
+                cacheWriter.discard();
+                cacheWriter = null;
+            }
+        }
+    }
+
+    private void closeBitstream() throws IOException {
+        try {
+            bitstream.close();
+        } catch (JavaLayerException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+}
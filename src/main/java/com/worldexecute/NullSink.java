@@ -0,0 +1,35 @@
+package com.worldexecute;
+
+/**
+ * NullSink - Output sink that discards frames and only counts them.
+ * Used to measure rendering throughput without any I/O.
+ */
+public class NullSink implements OutputSink {
+
+    private long bytes;
+    private long flushes;
+
+    @Override
+    public void write(byte[] data, int offset, int length) {
+        bytes += length;
+    }
+
+    @Override
+    public void flush() {
+        flushes++;
+    }
+
+    /**
+     * Gets the number of bytes discarded.
+     */
+    public long getByteCount() {
+        return bytes;
+    }
+
+    /**
+     * Gets how many frames were flushed.
+     */
+    public long getFlushCount() {
+        return flushes;
+    }
+}
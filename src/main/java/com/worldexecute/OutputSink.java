@@ -0,0 +1,70 @@
+package com.worldexecute;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * OutputSink - Destination for rendered frames.
+ * The renderer hands every frame to a sink in one write followed by flush(),
+ * so the same show can go to the terminal, a file, memory or nowhere. The
+ * terminal and file sinks write on a renderer thread (see QueuedSink).
+ */
+public interface OutputSink {
+
+    /**
+     * Writes bytes of a frame.
+     */
+    void write(byte[] data, int offset, int length) throws IOException;
+
+    /**
+     * Pushes a completed frame on to its destination.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Waits until every frame flushed so far has reached the destination.
+     * Sinks that write on the caller's thread have nothing to wait for.
+     */
+    default void sync() throws IOException {
+    }
+
+    /**
+     * Estimates how long the destination still needs for the frames flushed to it
+     * but not written yet. Sinks that write on the caller's thread have no backlog.
+     *
+     * @return Backlog in nanoseconds
+     */
+    default long getBacklogNanos() {
+        return 0;
+    }
+
+    /**
+     * Releases the destination. Sinks that do not own one do nothing.
+     */
+    default void close() throws IOException {
+    }
+
+    /**
+     * Creates a sink from a command line spec.
+     *
+     * @param spec "stdout", "null", "buffer" or "file:&lt;path&gt;"
+     * @return The sink
+     * @throws IllegalArgumentException If the spec is not recognised
+     * @throws IOException If the file cannot be opened
+     */
+    static OutputSink parse(String spec) throws IOException {
+        if (spec.equals("stdout")) {
+            return QueuedSink.stdout();
+        }
+        if (spec.equals("null")) {
+            return new NullSink();
+        }
+        if (spec.equals("buffer")) {
+            return new BufferSink();
+        }
+        if (spec.startsWith("file:") && spec.length() > 5) {
+            return new QueuedSink(ChannelSink.file(Paths.get(spec.substring(5))), true);
+        }
+        throw new IllegalArgumentException("Unknown sink '" + spec + "' (expected stdout, null, buffer or file:<path>)");
+    }
+}
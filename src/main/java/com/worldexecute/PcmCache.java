@@ -0,0 +1,197 @@
+package com.worldexecute;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * PcmCache - On-disk cache of decoded audio, stored as plain 16-bit WAV files.
+ * Entries are keyed by the SHA-256 of the compressed source, so a changed
+ * track never plays stale audio. Entries are written to a temporary file and
+ * moved into place only once complete, so an interrupted decode never leaves
+ * a truncated entry behind.
+ *
+ * Features:
+ * - Cache directory from -Dworldexecute.audioCache (default ~/.cache/world-execute-me),
+ *   also where AssetBundle keeps the bundle extracted from the jar
+ * - Streaming writes (decode output goes straight to disk)
+ * - Atomic publish of finished entries
+ */
+public class PcmCache {
+
+    private static final int HEADER_BYTES = 44;
+    private static final int HASH_BUFFER_BYTES = 64 * 1024;
+
+    private PcmCache() {
+    }
+
+    /**
+     * Gets the cache directory.
+     */
+    public static Path directory() {
+        String configured = System.getProperty("worldexecute.audioCache");
+        if (configured != null && !configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "world-execute-me");
+    }
+
+    /**
+     * Computes the cache key of a source by hashing its bytes.
+     * The stream is read to the end and closed.
+     *
+     * @param in Compressed source data
+     * @return Lower-case hex SHA-256
+     */
+    public static String keyOf(InputStream in) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (DigestInputStream digestStream = new DigestInputStream(in, digest)) {
+            byte[] buffer = new byte[HASH_BUFFER_BYTES];
+            while (digestStream.read(buffer) != -1) {
+                // Reading updates the digest
+            }
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Looks up a finished cache entry.
+     *
+     * @param key Cache key from keyOf
+     * @return Path of the cached WAV, or null on a miss
+     */
+    public static Path lookup(String key) {
+        Path entry = directory().resolve(key + ".wav");
+        return Files.isRegularFile(entry) ? entry : null;
+    }
+
+    /**
+     * Starts writing a new cache entry.
+     *
+     * @param key Cache key from keyOf
+     * @param sampleRate Sample rate in Hz
+     * @param channels Channel count
+     * @return Writer for the entry
+     */
+    public static Writer create(String key, int sampleRate, int channels) throws IOException {
+        Path dir = directory();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, key, ".part");
+        return new Writer(temp, dir.resolve(key + ".wav"), sampleRate, channels);
+    }
+
+    /**
+     * Streams 16-bit little-endian PCM into a pending cache entry.
+     */
+    public static final class Writer {
+
+        private final Path temp;
+        private final Path target;
+        private final FileChannel channel;
+        private long dataBytes;
+        private boolean done;
+
+        private Writer(Path temp, Path target, int sampleRate, int channels) throws IOException {
+            this.temp = temp;
+            this.target = target;
+            this.channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            // Sizes are patched in commit(), once they are known
+            channel.write(header(sampleRate, channels, 0));
+        }
+
+        /**
+         * Appends PCM bytes.
+         */
+        public void write(byte[] data, int offset, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(data, offset, length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            dataBytes += length;
+        }
+
+        /**
+         * Finishes the entry and publishes it under its key.
+         */
+        public void commit() throws IOException {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                ByteBuffer size = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+                size.putInt(0, (int) (HEADER_BYTES - 8 + dataBytes));
+                channel.write(size, 4);
+                size.putInt(0, (int) dataBytes);
+                size.rewind();
+                channel.write(size, 40);
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        /**
+         * Drops the unfinished entry.
+         */
+        public void discard() {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                channel.close();
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                System.err.println("Could not remove partial audio cache entry: " + temp);
+            }
+        }
+    }
+
+    /**
+     * Builds a canonical 44-byte PCM WAV header.
+     */
+    private static ByteBuffer header(int sampleRate, int channels, int dataBytes) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(new byte[] {'R', 'I', 'F', 'F'});
+        header.putInt(HEADER_BYTES - 8 + dataBytes);
+        header.put(new byte[] {'W', 'A', 'V', 'E', 'f', 'm', 't', ' '});
+        header.putInt(16);
+        header.putShort((short) 1);
+        header.putShort((short) channels);
+        header.putInt(sampleRate);
+        header.putInt(sampleRate * channels * 2);
+        header.putShort((short) (channels * 2));
+        header.putShort((short) 16);
+        header.put(new byte[] {'d', 'a', 't', 'a'});
+        header.putInt(dataBytes);
+        header.flip();
+        return header;
+    }
+}
@@ -0,0 +1,165 @@
+package com.worldexecute;
+
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Prewarm - Startup work done while the user types the password.
+ * Everything the first note and first frame depend on is started in parallel
+ * as soon as the prompt is shown: the cue sheet is compiled and its assets
+ * loaded, the audio track is opened (and decoded, for MP3) and the output
+ * line primed, and the render path is run on a private screen into a null
+ * sink until the JIT has compiled it. Once the password is in, the show only
+ * has to start the primed line. When the show starts at a chapter, the line
+ * is primed once the cue sheet has said where that chapter is.
+ *
+ * The warm-up frames never touch the shared Terminal, TimelineScheduler or
+ * SessionRandom, so the show's output is the same with or without it.
+ *
+ * Features:
+ * - Cue sheet, assets and color spans ready before the show
+ * - Audio line opened and primed (see StreamingAudioPlayer.prepare)
+ * - JIT warm-up of the screen, renderer, progress bar and shuffle paths
+ */
+public class Prewarm {
+
+    private static final int WARMUP_ROUNDS = 40;
+    private static final long WARMUP_SEED = 0x5EEDL;
+
+    private final CompletableFuture<Timeline> timeline;
+    private final CompletableFuture<Void> render;
+    private final StreamingAudioPlayer player;
+
+    private Prewarm(String track, AudioClock clock, String startAt) {
+        this.player = track == null ? null : new StreamingAudioPlayer(track, clock);
+        if (player != null && startAt == null) {
+            player.prepare();
+        }
+        CompletableFuture<Timeline> compiled = CompletableFuture.supplyAsync(CueSheet::loadDefault, Prewarm::daemon);
+        this.timeline = player == null || startAt == null ? compiled : compiled.thenApply(t -> {
+            int index = t.indexOfPosition(startAt);
+            if (index >= 0) {
+                player.seek(t.get(index).getStartMillis());
+                player.prepare();
+            }
+            return t;
+        });
+        this.render = timeline.thenAcceptAsync(Prewarm::warmRenderPath, Prewarm::daemon);
+    }
+
+    /**
+     * Starts every warm-up task in the background, with the audio primed where
+     * the show will start.
+     *
+     * @param track Audio track to open and prime, or null for none
+     * @param clock Clock the player will drive, or null
+     * @param startAt Position as accepted by Timeline.indexOfPosition, or null for the start
+     * @return Handle to wait for the results
+     */
+    public static Prewarm start(String track, AudioClock clock, String startAt) {
+        return new Prewarm(track, clock, startAt);
+    }
+
+    /**
+     * Gets the primed player.
+     *
+     * @return The player, or null if there is no track
+     */
+    public StreamingAudioPlayer getPlayer() {
+        return player;
+    }
+
+    /**
+     * Waits for the compiled cue sheet.
+     *
+     * @return The timeline
+     * @throws IllegalArgumentException If the cue sheet is invalid
+     * @throws UncheckedIOException If the cue sheet cannot be read
+     */
+    public Timeline awaitTimeline() {
+        try {
+            return timeline.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Waits a bounded time for the render warm-up, which is only an optimization.
+     *
+     * @param timeoutMillis Longest time to wait
+     */
+    public void awaitWarmup(long timeoutMillis) {
+        try {
+            render.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // The show runs fine on a cold JIT
+        } finally {
+            // Warm-up frames are not part of the show
+            ShowMetrics.shared().reset();
+        }
+    }
+
+    /**
+     * Draws every asset, progress bar and shuffle of the show repeatedly on a private
+     * screen and renderer, so the hot paths are compiled before the first frame.
+     */
+    private static void warmRenderPath(Timeline timeline) {
+        Screen shown = Terminal.getScreen();
+        Screen screen = new Screen(shown.getWidth(), shown.getHeight());
+        TerminalRenderer renderer = new TerminalRenderer(new NullSink());
+        ProgressBar bar = new ProgressBar(69, "Warming up");
+        SplittableRandom random = new SplittableRandom(WARMUP_SEED);
+        char[] shuffled = new char[0];
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (Cue cue : timeline) {
+                if (cue.getType() == CueType.READ_FILE_COLOR) {
+                    ColorSpans spans = FileReaderUtil.prepareColor(cue.getAsset(), cue.getColorRules());
+                    for (int i = 0; spans != null && i < spans.getLineCount(); i++) {
+                        spans.drawLine(screen, i);
+                        screen.print("\n");
+                        renderer.flush(screen);
+                    }
+                } else if (cue.getAsset() != null) {
+                    Asset asset = AssetCache.get(cue.getAsset());
+                    for (int i = 0; asset != null && i < asset.getLineCount(); i++) {
+                        screen.print(asset.getLine(i));
+                        screen.print("\n");
+                        renderer.flush(screen);
+                    }
+                } else if (cue.getText() != null && !cue.getText().isEmpty()) {
+                    String text = cue.getText();
+                    if (shuffled.length < text.length()) {
+                        shuffled = new char[text.length()];
+                    }
+                    PermutationTables.shuffleInto(text, shuffled, random);
+                    screen.print(shuffled, 0, text.length());
+                    screen.print("\r");
+                    renderer.flush(screen);
+                }
+            }
+            for (int step = 0; step <= bar.getWidth(); step++) {
+                bar.draw(screen, step, 0);
+                renderer.flush(screen);
+            }
+            screen.print("\n");
+        }
+    }
+
+    private static void daemon(Runnable task) {
+        Thread thread = new Thread(task, "prewarm");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,175 @@
+package com.worldexecute;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * ProgressBar - Reusable text progress bar drawn straight into the screen model.
+ * A frame looks like "Phrase [#####-----] 42%". It is composed in a byte
+ * buffer allocated once with the bar, then compared cell by cell with the
+ * screen so only the cells that actually changed are touched. Drawing a
+ * frame allocates nothing, so many bars can be updated at high frame rates.
+ *
+ * Features:
+ * - Configurable width and percent formula
+ * - Optional phrase rotation (the caller picks the phrase for each frame)
+ * - Draw at the cursor (like "\r" + text) or at any row without moving the cursor
+ */
+public final class ProgressBar {
+
+    private static final byte FILLED = '#';
+    private static final byte EMPTY = '-';
+    private static final int MAX_PERCENT_DIGITS = 11;
+
+    private final int width;
+    private final IntUnaryOperator percent;
+    private final byte[][] phrases;
+    private final byte[] line;
+    private int length;
+
+    /**
+     * Creates a bar whose percentage is step * 100 / width.
+     *
+     * @param width Number of bar cells
+     * @param phrases Phrases to show before the bar, or none
+     */
+    public ProgressBar(int width, String... phrases) {
+        this(width, step -> step * 100 / width, phrases);
+    }
+
+    /**
+     * Creates a bar.
+     *
+     * @param width Number of bar cells
+     * @param percent Maps a step (0..width) to the percentage shown
+     * @param phrases Phrases to show before the bar, or none; printable ASCII only
+     * @throws IllegalArgumentException If the width is not positive or a phrase is not printable ASCII
+     */
+    public ProgressBar(int width, IntUnaryOperator percent, String... phrases) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("Width must be positive: " + width);
+        }
+        this.width = width;
+        this.percent = percent;
+        this.phrases = new byte[phrases.length][];
+        int longest = 0;
+        for (int i = 0; i < phrases.length; i++) {
+            String phrase = phrases[i];
+            byte[] bytes = new byte[phrase.length() + 1];
+            for (int j = 0; j < phrase.length(); j++) {
+                char c = phrase.charAt(j);
+                if (c < ' ' || c > '~') {
+                    throw new IllegalArgumentException("Phrase is not printable ASCII: " + phrase);
+                }
+                bytes[j] = (byte) c;
+            }
+            bytes[phrase.length()] = ' ';
+            this.phrases[i] = bytes;
+            longest = Math.max(longest, bytes.length);
+        }
+        // phrase + "[" + bar + "] " + digits + "%"
+        this.line = new byte[longest + 1 + width + 2 + MAX_PERCENT_DIGITS + 1];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getPhraseCount() {
+        return phrases.length;
+    }
+
+    /**
+     * Draws a frame on the cursor's row from column 0 and leaves the cursor after it,
+     * exactly like printing "\r" followed by the frame text.
+     *
+     * @param screen Screen to draw into
+     * @param step Filled cells, 0 to width
+     * @param phraseIndex Phrase to show (ignored if the bar has none)
+     */
+    public void draw(Screen screen, int step, int phraseIndex) {
+        compose(step, phraseIndex);
+        if (length > screen.getWidth()) {
+            // Let the screen wrap it the way a terminal would
+            screen.putCodepoint('\r');
+            for (int i = 0; i < length; i++) {
+                screen.putCodepoint(line[i]);
+            }
+            return;
+        }
+        int row = screen.getCursorRow();
+        blit(screen, row);
+        screen.moveCursor(row, length);
+    }
+
+    /**
+     * Draws a frame on the given row without moving the cursor, e.g. for one of several bars.
+     * Frames wider than the screen are cut off.
+     *
+     * @param screen Screen to draw into
+     * @param row Row to draw on
+     * @param step Filled cells, 0 to width
+     * @param phraseIndex Phrase to show (ignored if the bar has none)
+     */
+    public void drawAt(Screen screen, int row, int step, int phraseIndex) {
+        compose(step, phraseIndex);
+        blit(screen, row);
+    }
+
+    /**
+     * Composes the frame text into the line buffer.
+     */
+    private void compose(int step, int phraseIndex) {
+        int filled = Math.max(0, Math.min(step, width));
+        int pos = 0;
+        if (phrases.length > 0) {
+            byte[] phrase = phrases[Math.floorMod(phraseIndex, phrases.length)];
+            System.arraycopy(phrase, 0, line, 0, phrase.length);
+            pos = phrase.length;
+        }
+        line[pos++] = '[';
+        for (int i = 0; i < filled; i++) {
+            line[pos++] = FILLED;
+        }
+        for (int i = filled; i < width; i++) {
+            line[pos++] = EMPTY;
+        }
+        line[pos++] = ']';
+        line[pos++] = ' ';
+        pos = appendInt(percent.applyAsInt(filled), pos);
+        line[pos++] = '%';
+        length = pos;
+    }
+
+    /**
+     * Writes the cells of the line buffer that differ from what the screen holds.
+     */
+    private void blit(Screen screen, int row) {
+        CellGrid grid = screen.getBackGrid();
+        byte color = screen.getColor();
+        int end = Math.min(length, grid.getWidth());
+        for (int col = 0; col < end; col++) {
+            int codepoint = line[col];
+            if (grid.codepointAt(row, col) != codepoint || grid.colorAt(row, col) != color) {
+                grid.set(row, col, codepoint, color);
+            }
+        }
+    }
+
+    private int appendInt(int value, int pos) {
+        if (value < 0) {
+            line[pos++] = '-';
+            value = -value;
+        }
+        int start = pos;
+        do {
+            line[pos++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (int i = start, j = pos - 1; i < j; i++, j--) {
+            byte swap = line[i];
+            line[i] = line[j];
+            line[j] = swap;
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,161 @@
+package com.worldexecute;
+
+import java.io.IOException;
+
+/**
+ * QueuedSink - Output sink that moves terminal I/O onto a dedicated renderer thread.
+ * The show thread only encodes frames (see TerminalRenderer) and copies them
+ * into a FrameRing; the renderer thread drains the ring and does the blocking
+ * writes. When the terminal is slow, frames that queued up meanwhile are
+ * coalesced into a single write and flush, so the show thread never waits on
+ * the terminal unless the whole ring is full.
+ *
+ * Features:
+ * - Ring size from -Dworldexecute.renderQueueFrames (default 64)
+ * - Shared queue in front of standard output
+ * - Adjacent frames coalesced into one write per drain
+ * - Queue depth, producer stalls and write counts reported to ShowMetrics
+ * - Backlog estimate (queued frames times the measured write time per frame),
+ *   so the show can drop frames when the terminal falls behind
+ */
+public class QueuedSink implements OutputSink {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private static QueuedSink stdout;
+
+    private final OutputSink target;
+    private final boolean owned;
+    private final FrameRing ring;
+    private final Thread renderer;
+    private volatile boolean closed;
+    private volatile long averageFrameNanos;
+    private boolean reported;
+
+    /**
+     * Creates a queue in front of a sink and starts its renderer thread.
+     *
+     * @param target Sink the renderer thread writes to
+     * @param owned Whether close() should close the target
+     */
+    public QueuedSink(OutputSink target, boolean owned) {
+        this(target, owned, Integer.getInteger("worldexecute.renderQueueFrames", DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Creates a queue in front of a sink and starts its renderer thread.
+     *
+     * @param target Sink the renderer thread writes to
+     * @param owned Whether close() should close the target
+     * @param capacity Frames that can be queued before the show thread waits
+     */
+    public QueuedSink(OutputSink target, boolean owned, int capacity) {
+        this.target = target;
+        this.owned = owned;
+        this.ring = new FrameRing(capacity);
+        this.renderer = new Thread(this::drain, "renderer");
+        renderer.setDaemon(true);
+        renderer.start();
+    }
+
+    /**
+     * Gets the queue in front of standard output. It is shared, and closing it only
+     * waits for the queued frames to be written.
+     */
+    public static synchronized QueuedSink stdout() {
+        if (stdout == null) {
+            stdout = new QueuedSink(ChannelSink.stdout(), false);
+        }
+        return stdout;
+    }
+
+    /**
+     * Gets the ring frames are queued in, e.g. to read its depth.
+     */
+    public FrameRing getRing() {
+        return ring;
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Output queue is closed");
+        }
+        long stalled = ring.append(data, offset, length);
+        if (stalled > 0) {
+            ShowMetrics.shared().recordProducerStall(stalled);
+        }
+    }
+
+    /**
+     * Queues the frame written since the last flush; the renderer thread writes it.
+     * A queue reports itself to ShowMetrics with its first frame, so the metrics
+     * follow the queue the show most recently started writing to.
+     */
+    @Override
+    public void flush() {
+        if (ring.publish() && !reported) {
+            reported = true;
+            ShowMetrics.shared().attachRenderQueue(ring);
+        }
+    }
+
+    /**
+     * Waits until the renderer thread has written and flushed every queued frame.
+     */
+    @Override
+    public void sync() {
+        ring.publish();
+        ring.awaitEmpty();
+    }
+
+    /**
+     * Estimates the backlog as the queued frames times the moving average of how
+     * long the renderer thread takes to write one frame.
+     */
+    @Override
+    public long getBacklogNanos() {
+        return ring.getDepth() * averageFrameNanos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        sync();
+        if (!owned) {
+            return;
+        }
+        closed = true;
+        ring.close();
+        try {
+            renderer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        target.close();
+    }
+
+    /**
+     * Renderer thread body: writes every published frame, then flushes once per batch.
+     */
+    private void drain() {
+        long next = 0;
+        long end;
+        while ((end = ring.awaitPublished(next)) >= 0) {
+            long start = System.nanoTime();
+            try {
+                for (long sequence = next; sequence < end; sequence++) {
+                    target.write(ring.frame(sequence), 0, ring.length(sequence));
+                }
+                target.flush();
+            } catch (IOException e) {
+                System.err.println("Error writing to terminal: " + e.getMessage());
+            }
+            long perFrame = (System.nanoTime() - start) / (end - next);
+            // Same 1/8 moving average as TerminalRenderer's flush time
+            averageFrameNanos += (perFrame - averageFrameNanos) >> 3;
+            ShowMetrics.shared().recordTerminalWrite();
+            ring.release(end);
+            next = end;
+        }
+    }
+}
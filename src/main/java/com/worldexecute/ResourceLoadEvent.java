@@ -0,0 +1,25 @@
+package com.worldexecute;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * ResourceLoadEvent - Flight recorder event for a text asset requested by an effect.
+ */
+@Name("com.worldexecute.ResourceLoad")
+@Label("Resource Load")
+@Category("World.Execute(Me)")
+final class ResourceLoadEvent extends jdk.jfr.Event {
+
+    @Label("Resource")
+    String resource;
+
+    @Label("Cached")
+    boolean cached;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
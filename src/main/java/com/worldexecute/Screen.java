@@ -0,0 +1,336 @@
+package com.worldexecute;
+
+/**
+ * Screen - Back-buffer screen model that all effects draw into.
+ * Interprets text the way a terminal would (carriage return, line feed, tabs,
+ * autowrap, scrolling and the SGR color escapes used in the lyrics) but only
+ * updates a CellGrid. Nothing is written to the terminal until a
+ * TerminalRenderer flushes the difference.
+ *
+ * Features:
+ * - Cursor and current color tracking
+ * - Inline ANSI color escape parsing
+ * - Understands the renderer's own output (cursor moves, scrolls), so a recorded
+ *   stream can be replayed into a screen
+ * - Scroll and clear bookkeeping so the renderer can replay them cheaply
+ */
+public class Screen {
+
+    private static final int TAB_WIDTH = 8;
+    private static final int ESCAPE_NONE = 0;
+    private static final int ESCAPE_START = 1;
+    private static final int ESCAPE_CSI = 2;
+
+    private final CellGrid back;
+    private int cursorRow;
+    private int cursorCol;
+    private byte color = CellGrid.DEFAULT_COLOR;
+
+    private int pendingScroll;
+    private boolean pendingClear;
+
+    private int escapeState = ESCAPE_NONE;
+    private final char[] escapeParams = new char[16];
+    private int escapeLength;
+    private char highSurrogate;
+
+    /**
+     * Creates a blank screen.
+     *
+     * @param width Number of columns
+     * @param height Number of rows
+     */
+    public Screen(int width, int height) {
+        this.back = new CellGrid(width, height);
+    }
+
+    public int getWidth() {
+        return back.getWidth();
+    }
+
+    public int getHeight() {
+        return back.getHeight();
+    }
+
+    public CellGrid getBackGrid() {
+        return back;
+    }
+
+    public int getCursorRow() {
+        return cursorRow;
+    }
+
+    public int getCursorCol() {
+        return cursorCol;
+    }
+
+    public byte getColor() {
+        return color;
+    }
+
+    /**
+     * Sets the color attribute applied to subsequently printed cells.
+     *
+     * @param sgrColor SGR foreground code (30-37), or 0 for default
+     */
+    public void setColor(byte sgrColor) {
+        this.color = sgrColor;
+    }
+
+    /**
+     * Draws text at the cursor, interpreting control characters and color escapes.
+     * Escape sequences may be split across calls, so text can be fed one
+     * character at a time.
+     *
+     * @param text Text to draw
+     */
+    public void print(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            put(text.charAt(i));
+        }
+    }
+
+    /**
+     * Draws part of a text at the cursor.
+     *
+     * @param text Text to draw from
+     * @param start Index of the first char to draw
+     * @param end Index after the last char to draw
+     */
+    public void print(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            put(text.charAt(i));
+        }
+    }
+
+    /**
+     * Draws part of a char buffer at the cursor.
+     *
+     * @param text Buffer to draw from
+     * @param start Index of the first char to draw
+     * @param end Index after the last char to draw
+     */
+    public void print(char[] text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            put(text[i]);
+        }
+    }
+
+    /**
+     * Feeds one UTF-16 char through the escape parser and draws it if printable.
+     *
+     * @param c Character to draw
+     */
+    public void put(char c) {
+        if (escapeState == ESCAPE_START) {
+            escapeState = c == '[' ? ESCAPE_CSI : ESCAPE_NONE;
+            escapeLength = 0;
+            return;
+        }
+        if (escapeState == ESCAPE_CSI) {
+            if (c >= '@' && c <= '~') {
+                escapeState = ESCAPE_NONE;
+                applyEscape(c);
+            } else if (escapeLength < escapeParams.length) {
+                escapeParams[escapeLength++] = c;
+            }
+            return;
+        }
+        if (c == '\u001B') {
+            escapeState = ESCAPE_START;
+            return;
+        }
+        if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+            return;
+        }
+        if (Character.isLowSurrogate(c) && highSurrogate != 0) {
+            int codepoint = Character.toCodePoint(highSurrogate, c);
+            highSurrogate = 0;
+            putCodepoint(codepoint);
+            return;
+        }
+        highSurrogate = 0;
+        putCodepoint(c);
+    }
+
+    /**
+     * Draws a single character at the cursor.
+     *
+     * @param codepoint Character to draw
+     */
+    public void putCodepoint(int codepoint) {
+        switch (codepoint) {
+            case '\n':
+                lineFeed();
+                return;
+            case '\r':
+                cursorCol = 0;
+                return;
+            case '\t':
+                int next = Math.min((cursorCol / TAB_WIDTH + 1) * TAB_WIDTH, getWidth());
+                while (cursorCol < next) {
+                    putCodepoint(CellGrid.BLANK);
+                }
+                return;
+            default:
+                break;
+        }
+        if (codepoint < ' ') {
+            return;
+        }
+        if (cursorCol >= getWidth()) {
+            lineFeed();
+        }
+        back.set(cursorRow, cursorCol, codepoint, color);
+        cursorCol++;
+    }
+
+    /**
+     * Moves the cursor to the start of the next line, scrolling if needed.
+     */
+    public void lineFeed() {
+        cursorCol = 0;
+        if (cursorRow + 1 < getHeight()) {
+            cursorRow++;
+        } else {
+            back.scrollUp(1);
+            pendingScroll++;
+        }
+    }
+
+    /**
+     * Moves the cursor to an absolute position.
+     */
+    public void moveCursor(int row, int col) {
+        cursorRow = Math.max(0, Math.min(row, getHeight() - 1));
+        cursorCol = Math.max(0, Math.min(col, getWidth()));
+    }
+
+    /**
+     * Blanks the whole screen and homes the cursor.
+     */
+    public void clear() {
+        back.clear();
+        cursorRow = 0;
+        cursorCol = 0;
+        pendingScroll = 0;
+        pendingClear = true;
+    }
+
+    /**
+     * Adds scrolling and clearing done elsewhere to what the next flush replays,
+     * e.g. when this screen shows a composite of other screens.
+     *
+     * @param lines Lines scrolled after the clear, if any
+     * @param cleared Whether the screen was cleared
+     */
+    void addPending(int lines, boolean cleared) {
+        if (cleared) {
+            pendingClear = true;
+            pendingScroll = lines;
+        } else {
+            pendingScroll += lines;
+        }
+    }
+
+    /**
+     * Returns and resets the number of lines scrolled since the last call.
+     */
+    public int takePendingScroll() {
+        int lines = pendingScroll;
+        pendingScroll = 0;
+        return lines;
+    }
+
+    /**
+     * Returns and resets whether the screen was cleared since the last call.
+     */
+    public boolean takePendingClear() {
+        boolean cleared = pendingClear;
+        pendingClear = false;
+        return cleared;
+    }
+
+    private void applyEscape(char command) {
+        switch (command) {
+            case 'm':
+                applySgr();
+                break;
+            case 'H':
+                moveCursor(escapeParam(0, 1) - 1, escapeParam(1, 1) - 1);
+                break;
+            case 'S':
+                scrollUp(escapeParam(0, 1));
+                break;
+            case 'J':
+                if (escapeLength > 0 && escapeParams[0] == '2') {
+                    int row = cursorRow;
+                    int col = cursorCol;
+                    clear();
+                    moveCursor(row, col);
+                }
+                break;
+            case 'K':
+                if (cursorCol < getWidth()) {
+                    back.clearRow(cursorRow, cursorCol);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Scrolls the whole screen up, as the terminal's SU sequence does.
+     */
+    private void scrollUp(int lines) {
+        int count = Math.min(lines, getHeight());
+        back.scrollUp(count);
+        pendingScroll += count;
+    }
+
+    /**
+     * Reads a numeric escape parameter (e.g. the column of "ESC[5;10H").
+     *
+     * @param index Zero-based parameter position
+     * @param fallback Value when the parameter is missing or zero
+     */
+    private int escapeParam(int index, int fallback) {
+        int current = 0;
+        int value = 0;
+        boolean seen = false;
+        for (int i = 0; i < escapeLength; i++) {
+            char c = escapeParams[i];
+            if (c == ';') {
+                if (current == index) {
+                    break;
+                }
+                current++;
+                continue;
+            }
+            if (current == index && c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                seen = true;
+            }
+        }
+        return seen && value > 0 ? value : fallback;
+    }
+
+    private void applySgr() {
+        int value = 0;
+        for (int i = 0; i <= escapeLength; i++) {
+            char c = i < escapeLength ? escapeParams[i] : ';';
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+            } else if (c == ';') {
+                if (value == 0 || value == 39) {
+                    color = CellGrid.DEFAULT_COLOR;
+                } else if (value >= 30 && value <= 37) {
+                    color = (byte) value;
+                }
+                value = 0;
+            }
+        }
+    }
+}
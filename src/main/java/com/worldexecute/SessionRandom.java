@@ -0,0 +1,116 @@
+package com.worldexecute;
+
+import java.util.SplittableRandom;
+
+/**
+ * SessionRandom - Seeded randomness for one run of the show.
+ * Every glitch effect draws from a SplittableRandom derived from a single
+ * session seed, so the same seed always produces the same output. Each
+ * thread gets its own generator split off the session root the first time
+ * it asks, so threads never contend on a shared seed. Threads whose start
+ * order is not fixed (the layer workers) are handed a generator derived from
+ * the seed and a name instead, so they draw the same values in every run.
+ *
+ * Features:
+ * - Default seed taken from the original "Seed ID"; simulateWorld shows the seed in use
+ * - Reseeding (e.g. from --seed) resets every thread's generator
+ * - Named streams for threads that start in no fixed order
+ * - No locking on the hot path
+ */
+public final class SessionRandom {
+
+    /** The "Seed ID: 03108891624980232" the show has always printed during world generation. */
+    public static final long DEFAULT_SEED = 3108891624980232L;
+
+    private static SplittableRandom root = new SplittableRandom(DEFAULT_SEED);
+    private static volatile long seed = DEFAULT_SEED;
+    private static volatile int generation;
+
+    private static final ThreadLocal<Stream> streams = new ThreadLocal<>();
+
+    private SessionRandom() {
+    }
+
+    /**
+     * Starts a new session; every thread's generator is re-derived from this seed.
+     *
+     * @param newSeed Session seed
+     */
+    public static synchronized void reseed(long newSeed) {
+        seed = newSeed;
+        root = new SplittableRandom(newSeed);
+        generation++;
+    }
+
+    /**
+     * Gets the current session seed.
+     */
+    public static long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the calling thread's generator for the current session.
+     * The generator must not be shared with other threads.
+     *
+     * @return Generator confined to the calling thread
+     */
+    public static SplittableRandom current() {
+        Stream stream = streams.get();
+        if (stream == null || stream.generation != generation) {
+            stream = split();
+            streams.set(stream);
+        }
+        return stream.random;
+    }
+
+    /**
+     * Creates a generator that depends only on the session seed and a name, not on
+     * which threads asked for one before.
+     *
+     * @param name Stable name, e.g. of a layer
+     * @return A new generator for the current session
+     */
+    public static SplittableRandom derive(String name) {
+        // Golden-ratio multiple keeps seeds of similar names far apart
+        return new SplittableRandom(seed ^ (name.hashCode() * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Makes the calling thread draw from the given generator for the rest of the
+     * current session.
+     *
+     * @param random Generator to use, confined to the calling thread from now on;
+     *               null makes the thread split its own off the root again
+     * @return The generator the thread used before, or null if it had none yet
+     */
+    public static SplittableRandom use(SplittableRandom random) {
+        // Reading the old stream must not split one off, or later threads would get different ones
+        Stream stream = streams.get();
+        SplittableRandom previous = stream != null && stream.generation == generation ? stream.random : null;
+        if (random == null) {
+            streams.remove();
+        } else {
+            streams.set(new Stream(generation, random));
+        }
+        return previous;
+    }
+
+    private static synchronized Stream split() {
+        return new Stream(generation, root.split());
+    }
+
+    /**
+     * A thread's generator, tagged with the session it belongs to.
+     */
+    private static final class Stream {
+
+        private final int generation;
+        private final SplittableRandom random;
+
+        private Stream(int generation, SplittableRandom random) {
+            this.generation = generation;
+            this.random = random;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.worldexecute;
+
+/**
+ * ShowClock - The time base the show is paced against.
+ * A clock reports how far the show has progressed since it was started.
+ * TimelineScheduler waits on whichever clock it is given, so the visuals can
+ * follow the wall clock or the audio playback position.
+ */
+public interface ShowClock {
+
+    /**
+     * Marks position zero; called when the show starts.
+     */
+    void start();
+
+    /**
+     * Gets the current show position.
+     *
+     * @return Nanoseconds since start; never decreases while the show runs
+     */
+    long positionNanos();
+
+    /**
+     * Lets the clock itself bring the show to a deadline, e.g. by jumping a virtual clock forward.
+     * Real clocks leave the waiting to the scheduler.
+     *
+     * @param deadlineNanos Position to reach
+     * @return true if the deadline has been reached, false if the caller must wait for it
+     */
+    default boolean advanceTo(long deadlineNanos) {
+        return false;
+    }
+}
@@ -0,0 +1,302 @@
+package com.worldexecute;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * ShowMetrics - Process-wide timing and throughput metrics, published over JMX.
+ * The show records how late each cue started against its scheduled time
+ * (one histogram per effect type) and how much the renderer wrote. Audio
+ * underruns and drift are read from the current player and clock when a
+ * JMX client asks for them.
+ *
+ * Every record method is lock-free and allocation-free, so measuring does
+ * not disturb the timing being measured.
+ *
+ * Features:
+ * - Per effect type start latency histograms (see LatencyHistogram)
+ * - Deadlines the scheduler reached late, and by how much
+ * - Bytes written, flushes, time spent flushing and dropped frames
+ * - Render queue depth, producer stalls and coalesced terminal writes
+ * - Audio underruns and drift against the wall clock
+ * - Registered as com.worldexecute:type=ShowMetrics
+ */
+public final class ShowMetrics implements ShowMetricsMBean {
+
+    public static final String OBJECT_NAME = "com.worldexecute:type=ShowMetrics";
+
+    private static final ShowMetrics SHARED = new ShowMetrics();
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final LatencyHistogram[] cueLatency = new LatencyHistogram[CueType.values().length];
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder framesDropped = new LongAdder();
+    private final LongAdder lateCues = new LongAdder();
+    private final LatencyHistogram lateDeadlines = new LatencyHistogram();
+    private final LatencyHistogram flushTime = new LatencyHistogram();
+    private final LongAdder terminalWrites = new LongAdder();
+    private final LatencyHistogram producerStalls = new LatencyHistogram();
+
+    private volatile FrameRing renderQueue;
+    private volatile StreamingAudioPlayer audioPlayer;
+    private volatile AudioClock audioClock;
+
+    private ShowMetrics() {
+        for (int i = 0; i < cueLatency.length; i++) {
+            cueLatency[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Gets the metrics shared by the whole process.
+     */
+    public static ShowMetrics shared() {
+        return SHARED;
+    }
+
+    /**
+     * Registers the shared metrics with the platform MBean server.
+     * Failing to register only disables monitoring.
+     */
+    public static void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(SHARED, name);
+            }
+        } catch (JMException | SecurityException e) {
+            System.err.println("Metrics not available over JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records when a cue actually started.
+     *
+     * @param type The cue's effect
+     * @param latenessNanos Actual minus scheduled start on the show clock
+     */
+    public void recordCueStart(CueType type, long latenessNanos) {
+        cueLatency[type.ordinal()].record(latenessNanos);
+        if (latenessNanos > 0) {
+            lateCues.increment();
+        }
+    }
+
+    /**
+     * Records a timeline deadline that had already passed when it was awaited,
+     * so the show ran on without waiting.
+     *
+     * @param latenessNanos How far the clock was past the deadline
+     */
+    public void recordLateDeadline(long latenessNanos) {
+        lateDeadlines.record(latenessNanos);
+    }
+
+    /**
+     * Records a frame written by the renderer.
+     *
+     * @param bytes Size of the frame
+     * @param nanos How long the write and flush took
+     */
+    public void recordFlush(int bytes, long nanos) {
+        bytesWritten.add(bytes);
+        flushes.increment();
+        flushTime.record(nanos);
+    }
+
+    /**
+     * Records frames that were skipped (not flushed) to catch up with the show clock.
+     * Their content still reaches the terminal with the next frame that is flushed.
+     *
+     * @param frames Number of frames skipped
+     */
+    public void recordFramesDropped(int frames) {
+        framesDropped.add(frames);
+    }
+
+    /**
+     * Records a write by the renderer thread, which may carry several queued frames.
+     * Flushes per terminal write is how many frames were coalesced on average.
+     */
+    public void recordTerminalWrite() {
+        terminalWrites.increment();
+    }
+
+    /**
+     * Records the show thread waiting because the render queue was full.
+     *
+     * @param nanos How long it waited
+     */
+    public void recordProducerStall(long nanos) {
+        producerStalls.record(nanos);
+    }
+
+    /**
+     * Sets the render queue whose depth is reported.
+     *
+     * @param ring The queue in front of the terminal
+     */
+    public void attachRenderQueue(FrameRing ring) {
+        this.renderQueue = ring;
+    }
+
+    /**
+     * Sets the player and clock audio metrics are read from.
+     *
+     * @param player The playing track, or null
+     * @param clock The clock following it, or null
+     */
+    public void attachAudio(StreamingAudioPlayer player, AudioClock clock) {
+        this.audioPlayer = player;
+        this.audioClock = clock;
+    }
+
+    /**
+     * Gets the start latency histogram of one effect type.
+     */
+    public LatencyHistogram getCueLatency(CueType type) {
+        return cueLatency[type.ordinal()];
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    @Override
+    public long getFramesDropped() {
+        return framesDropped.sum();
+    }
+
+    @Override
+    public double getAverageFlushMillis() {
+        return flushTime.getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxFlushMillis() {
+        return flushTime.getMaxNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getTerminalWriteCount() {
+        return terminalWrites.sum();
+    }
+
+    @Override
+    public int getRenderQueueCapacity() {
+        FrameRing ring = renderQueue;
+        return ring == null ? 0 : ring.getCapacity();
+    }
+
+    @Override
+    public int getRenderQueueDepth() {
+        FrameRing ring = renderQueue;
+        return ring == null ? 0 : ring.getDepth();
+    }
+
+    @Override
+    public int getRenderQueueMaxDepth() {
+        FrameRing ring = renderQueue;
+        return ring == null ? 0 : ring.getMaxDepth();
+    }
+
+    @Override
+    public long getProducerStallCount() {
+        return producerStalls.getCount();
+    }
+
+    @Override
+    public double getMaxProducerStallMillis() {
+        return producerStalls.getMaxNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getAudioUnderruns() {
+        StreamingAudioPlayer player = audioPlayer;
+        return player == null ? 0 : player.getUnderruns();
+    }
+
+    @Override
+    public double getAudioDriftMillis() {
+        AudioClock clock = audioClock;
+        return clock == null ? 0 : clock.getDriftNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getLateCueCount() {
+        return lateCues.sum();
+    }
+
+    @Override
+    public long getLateDeadlineCount() {
+        return lateDeadlines.getCount();
+    }
+
+    @Override
+    public double getMaxDeadlineLatenessMillis() {
+        return lateDeadlines.getMaxNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public String[] getCueLatencySummary() {
+        List<String> lines = new ArrayList<>();
+        for (CueType type : CueType.values()) {
+            LatencyHistogram histogram = cueLatency[type.ordinal()];
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            lines.add(String.format(Locale.ROOT, "%s count=%d mean=%.3fms p50<=%.3fms p99<=%.3fms max=%.3fms",
+                type.getKeyword(), histogram.getCount(),
+                histogram.getMeanNanos() / NANOS_PER_MILLI,
+                histogram.getPercentileNanos(50) / NANOS_PER_MILLI,
+                histogram.getPercentileNanos(99) / NANOS_PER_MILLI,
+                histogram.getMaxNanos() / NANOS_PER_MILLI));
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    @Override
+    public long[] cueLatencyBuckets(String keyword) {
+        CueType type = CueType.fromKeyword(keyword);
+        return type == null ? new long[0] : cueLatency[type.ordinal()].getBuckets();
+    }
+
+    @Override
+    public double cueLatencyPercentileMillis(String keyword, double percentile) {
+        CueType type = CueType.fromKeyword(keyword);
+        return type == null ? -1 : cueLatency[type.ordinal()].getPercentileNanos(percentile) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : cueLatency) {
+            histogram.reset();
+        }
+        bytesWritten.reset();
+        flushes.reset();
+        framesDropped.reset();
+        lateCues.reset();
+        lateDeadlines.reset();
+        flushTime.reset();
+        terminalWrites.reset();
+        producerStalls.reset();
+        FrameRing ring = renderQueue;
+        if (ring != null) {
+            ring.resetMaxDepth();
+        }
+    }
+}
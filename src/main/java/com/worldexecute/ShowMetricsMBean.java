@@ -0,0 +1,68 @@
+package com.worldexecute;
+
+/**
+ * ShowMetricsMBean - JMX view of ShowMetrics.
+ * Attributes are read by JMX clients such as jconsole or VisualVM under
+ * com.worldexecute:type=ShowMetrics.
+ */
+public interface ShowMetricsMBean {
+
+    long getBytesWritten();
+
+    long getFlushCount();
+
+    long getFramesDropped();
+
+    double getAverageFlushMillis();
+
+    double getMaxFlushMillis();
+
+    long getTerminalWriteCount();
+
+    int getRenderQueueCapacity();
+
+    int getRenderQueueDepth();
+
+    int getRenderQueueMaxDepth();
+
+    long getProducerStallCount();
+
+    double getMaxProducerStallMillis();
+
+    long getAudioUnderruns();
+
+    double getAudioDriftMillis();
+
+    long getLateCueCount();
+
+    long getLateDeadlineCount();
+
+    double getMaxDeadlineLatenessMillis();
+
+    /**
+     * One line per effect type that has run: count, mean, p50, p99 and max start latency.
+     */
+    String[] getCueLatencySummary();
+
+    /**
+     * Gets the start latency bucket counts for one effect type.
+     *
+     * @param keyword Cue sheet keyword, e.g. "slowType"
+     * @return Counts of latencies in [2^(i-1), 2^i) nanoseconds, or an empty array for an unknown keyword
+     */
+    long[] cueLatencyBuckets(String keyword);
+
+    /**
+     * Gets an upper bound for a start latency percentile of one effect type.
+     *
+     * @param keyword Cue sheet keyword, e.g. "slowType"
+     * @param percentile Percentile between 0 and 100
+     * @return Latency in milliseconds, or -1 for an unknown keyword
+     */
+    double cueLatencyPercentileMillis(String keyword, double percentile);
+
+    /**
+     * Clears every histogram and counter.
+     */
+    void reset();
+}
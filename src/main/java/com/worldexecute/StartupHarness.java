@@ -0,0 +1,142 @@
+package com.worldexecute;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * StartupHarness - Compares how fast different launch commands get the show on screen.
+ * Each command is started several times; the harness records the time until
+ * the first byte arrives on its stdout, the time until it exits and its peak
+ * resident memory (from /proc on Linux). Used by the runtime-image profile to
+ * compare the plain jar against the jlink image with its AppCDS archive.
+ *
+ * Usage: StartupHarness [--runs n] label=command [label=command ...]
+ * Commands are split on spaces; stderr is discarded.
+ */
+public class StartupHarness {
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long RSS_POLL_MILLIS = 2;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = 5;
+        List<String> labels = new ArrayList<>();
+        List<List<String>> commands = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--runs") && i + 1 < args.length) {
+                runs = Integer.parseInt(args[++i]);
+                continue;
+            }
+            int equals = args[i].indexOf('=');
+            if (equals <= 0) {
+                System.err.println("Usage: StartupHarness [--runs n] label=command [label=command ...]");
+                return;
+            }
+            labels.add(args[i].substring(0, equals));
+            commands.add(Arrays.asList(args[i].substring(equals + 1).trim().split("\\s+")));
+        }
+
+        for (int c = 0; c < commands.size(); c++) {
+            long[] firstOutput = new long[runs];
+            long[] exit = new long[runs];
+            long[] rss = new long[runs];
+            // One untimed run so both commands see a warm file cache
+            measure(commands.get(c));
+            for (int run = 0; run < runs; run++) {
+                long[] result = measure(commands.get(c));
+                firstOutput[run] = result[0];
+                exit[run] = result[1];
+                rss[run] = result[2];
+            }
+            System.out.println(String.format(Locale.ROOT,
+                "%-8s first output %7.1f ms (min %6.1f)   exit %7.1f ms   peak RSS %s",
+                labels.get(c), median(firstOutput) / (double) NANOS_PER_MILLI,
+                Arrays.stream(firstOutput).min().getAsLong() / (double) NANOS_PER_MILLI,
+                median(exit) / (double) NANOS_PER_MILLI,
+                median(rss) < 0 ? "n/a" : median(rss) / 1024 + " MiB"));
+        }
+    }
+
+    /**
+     * Runs a command once.
+     *
+     * @return {nanos to first stdout byte, nanos to exit, peak RSS in KiB or -1}
+     */
+    private static long[] measure(List<String> command) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectError(ProcessBuilder.Redirect.DISCARD);
+        long start = System.nanoTime();
+        Process process = builder.start();
+        RssSampler sampler = new RssSampler(process.pid());
+        sampler.start();
+
+        long firstOutput = -1;
+        byte[] chunk = new byte[64 * 1024];
+        try (InputStream out = process.getInputStream()) {
+            int read = out.read(chunk);
+            if (read > 0) {
+                firstOutput = System.nanoTime() - start;
+            }
+            while (read != -1) {
+                read = out.read(chunk);
+            }
+        }
+        process.waitFor();
+        long exit = System.nanoTime() - start;
+        sampler.interrupt();
+        sampler.join();
+        if (process.exitValue() != 0) {
+            System.err.println(String.join(" ", command) + " exited with " + process.exitValue());
+        }
+        return new long[] {firstOutput, exit, sampler.peakKib};
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Polls the kernel's high-water mark of a process's resident memory until it exits.
+     */
+    private static final class RssSampler extends Thread {
+
+        private final Path status;
+        private volatile long peakKib = -1;
+
+        private RssSampler(long pid) {
+            super("rss-sampler");
+            setDaemon(true);
+            this.status = Paths.get("/proc", Long.toString(pid), "status");
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                try {
+                    for (String line : Files.readAllLines(status, StandardCharsets.US_ASCII)) {
+                        if (line.startsWith("VmHWM:")) {
+                            long kib = Long.parseLong(line.replaceAll("[^0-9]", ""));
+                            peakKib = Math.max(peakKib, kib);
+                        }
+                    }
+                    Thread.sleep(RSS_POLL_MILLIS);
+                } catch (IOException e) {
+                    // Not Linux, or the process has exited
+                    return;
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
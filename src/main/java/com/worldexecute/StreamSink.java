@@ -0,0 +1,52 @@
+package com.worldexecute;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * StreamSink - Output sink over an OutputStream (the terminal or a file).
+ */
+public class StreamSink implements OutputSink {
+
+    private final OutputStream out;
+    private final boolean owned;
+
+    /**
+     * Creates a sink over a stream that stays open when the sink is closed (e.g. System.out).
+     *
+     * @param out Destination stream
+     */
+    public StreamSink(OutputStream out) {
+        this(out, false);
+    }
+
+    /**
+     * Creates a sink over a stream.
+     *
+     * @param out Destination stream
+     * @param owned Whether close() should close the stream
+     */
+    public StreamSink(OutputStream out, boolean owned) {
+        this.out = out;
+        this.owned = owned;
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        out.write(data, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (owned) {
+            out.close();
+        } else {
+            out.flush();
+        }
+    }
+}
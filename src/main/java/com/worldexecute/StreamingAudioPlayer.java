@@ -0,0 +1,509 @@
+package com.worldexecute;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineEvent;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * StreamingAudioPlayer - Constant-memory audio playback through a SourceDataLine.
+ * Instead of loading the whole track into a Clip, a feeder thread streams PCM
+ * from the classpath (or a file) into a small AudioRingBuffer and an output
+ * thread drains it into the sound card. Works the same from the IDE and from
+ * the shaded jar.
+ *
+ * All players share the same two threads, so however many tracks are played
+ * the thread count stays fixed. Players take turns: a player's line only opens
+ * once the previous player has played out or been stopped.
+ *
+ * Features:
+ * - Fixed memory regardless of track length
+ * - Playback starts as soon as the first buffer is filled
+ * - prepare() opens and primes everything ahead of time, so play() only starts the line
+ * - Starting part way into the track, by time or frame (set before prepare; no seeking while playing)
+ * - Pause and resume; an attached AudioClock holds still meanwhile
+ * - Completion as a CompletableFuture; playing state from the line's START/STOP events
+ * - One output and one feeder thread shared by every player, whatever the number of plays
+ * - WAV and MP3 (decoded on the feeder thread, cached in PcmCache)
+ * - Underruns counted and reported
+ */
+public class StreamingAudioPlayer {
+
+    private static final int RING_BYTES = 64 * 1024;
+    private static final int CHUNK_BYTES = 4096;
+    private static final int LINE_BUFFER_MILLIS = 100;
+    private static final long PREFILL_TIMEOUT_MILLIS = 2000;
+
+    /** Drives the output line; a later player's line starts once the one before has finished. */
+    private static final ExecutorService OUTPUT_THREAD =
+        Executors.newSingleThreadExecutor(task -> audioThread(task, "audio"));
+    /** Decodes into the ring; a later player's feeder runs once the one before has reached the end. */
+    private static final ExecutorService FEED_THREAD =
+        Executors.newSingleThreadExecutor(task -> audioThread(task, "audio-feed"));
+
+    private final String location;
+    private final AudioRingBuffer ring = new AudioRingBuffer(RING_BYTES);
+    private final AudioClock clock;
+    private final CountDownLatch startSignal = new CountDownLatch(1);
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private boolean prepared;
+    private boolean paused;
+    private boolean lineStarted;
+    private volatile long startMillis;
+    private volatile long startFrame;
+    private volatile long requestedNanos;
+    private volatile SourceDataLine line;
+    private volatile boolean isPlaying = false;
+    private volatile boolean stopped = false;
+    private volatile long startupLatencyNanos = -1;
+
+    /**
+     * Creates a player for a classpath resource or file.
+     *
+     * @param location Classpath resource path (e.g. "audioFiles/worldexecute.wav") or file path
+     */
+    public StreamingAudioPlayer(String location) {
+        this(location, null);
+    }
+
+    /**
+     * Creates a player that reports its playback position to an audio clock.
+     *
+     * @param location Classpath resource path or file path
+     * @param clock Clock to drive from the playback position, or null
+     */
+    public StreamingAudioPlayer(String location, AudioClock clock) {
+        this.location = location;
+        this.clock = clock;
+    }
+
+    /**
+     * Opens the track and the output line in the background and primes the line
+     * with the first buffer, without starting playback (non-blocking).
+     * Calling it is optional; play() prepares on its own if needed.
+     */
+    public synchronized void prepare() {
+        if (!prepared) {
+            prepared = true;
+            OUTPUT_THREAD.execute(this::stream);
+        }
+    }
+
+    /**
+     * Sets where in the track playback starts; the clock then counts from this
+     * point rather than from the start of the track. This only picks the start
+     * position: the track is streamed forward from there, so a player that has
+     * been prepared, playing or paused, cannot be moved.
+     *
+     * @param offsetMillis Offset into the track in milliseconds
+     * @throws IllegalStateException if prepare() or play() has already been called
+     */
+    public synchronized void seek(long offsetMillis) {
+        if (prepared) {
+            throw new IllegalStateException("Cannot seek after the player has been prepared");
+        }
+        this.startMillis = Math.max(0, offsetMillis);
+        this.startFrame = 0;
+    }
+
+    /**
+     * Sets the sample frame playback starts at. Like seek(), this only picks the
+     * start position and cannot move a track that is already streaming.
+     *
+     * @param frame Frame of the decoded track
+     * @throws IllegalStateException if prepare() or play() has already been called
+     */
+    public synchronized void seekFrame(long frame) {
+        if (prepared) {
+            throw new IllegalStateException("Cannot seek after the player has been prepared");
+        }
+        this.startFrame = Math.max(0, frame);
+        this.startMillis = 0;
+    }
+
+    /**
+     * Starts streaming playback on background threads (non-blocking).
+     * After prepare() has finished this only starts the already primed line.
+     *
+     * @return Completes when the track has played out or playback was stopped, or
+     *         exceptionally if the track could not be played
+     */
+    public synchronized CompletableFuture<Void> play() {
+        requestedNanos = System.nanoTime();
+        prepare();
+        startSignal.countDown();
+        return completion;
+    }
+
+    /**
+     * Pauses playback where it is. The line keeps its buffered audio, and the
+     * attached clock holds its position until playback resumes.
+     */
+    public synchronized void pause() {
+        if (paused) {
+            return;
+        }
+        paused = true;
+        SourceDataLine current = line;
+        if (lineStarted && current != null) {
+            current.stop();
+        }
+        if (clock != null) {
+            clock.hold();
+        }
+    }
+
+    /**
+     * Resumes playback after pause().
+     */
+    public synchronized void resume() {
+        if (!paused) {
+            return;
+        }
+        paused = false;
+        SourceDataLine current = line;
+        if (lineStarted && current != null) {
+            current.start();
+        }
+    }
+
+    /**
+     * Gets the future that completes when playback ends, e.g. to chain on it
+     * instead of waiting.
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Stops playback immediately and releases the line.
+     */
+    public void stop() {
+        synchronized (this) {
+            if (!prepared) {
+                // No output thread will ever complete it
+                completion.complete(null);
+            }
+        }
+        stopped = true;
+        startSignal.countDown();
+        ring.close();
+        SourceDataLine current = line;
+        if (current != null) {
+            current.stop();
+            current.flush();
+        }
+        isPlaying = false;
+    }
+
+    /**
+     * Checks if audio is currently playing.
+     *
+     * @return true if audio is playing, false otherwise
+     */
+    public boolean isPlaying() {
+        return isPlaying;
+    }
+
+    /**
+     * Waits for the audio playback to complete.
+     * Blocks until the audio finishes playing.
+     */
+    public void waitForCompletion() {
+        try {
+            completion.join();
+        } catch (CompletionException | CancellationException e) {
+            // Already reported by the output thread
+        }
+    }
+
+    /**
+     * Gets how many times the output line found the ring buffer empty mid-track.
+     */
+    public long getUnderruns() {
+        return ring.getUnderruns();
+    }
+
+    /**
+     * Gets the time from play() to the primed line starting to play.
+     *
+     * @return Latency in nanoseconds, or -1 if playback has not started
+     */
+    public long getStartupLatencyNanos() {
+        return startupLatencyNanos;
+    }
+
+    /**
+     * Output thread body. Whatever happens, the clock is released to free-run
+     * afterwards and the completion future is completed.
+     */
+    private void stream() {
+        try {
+            if (!stopped) {
+                // Stopped while queued behind another player
+                streamTrack();
+            }
+        } catch (IOException | UnsupportedAudioFileException | LineUnavailableException
+                 | IllegalArgumentException e) {
+            completion.completeExceptionally(e);
+        } finally {
+            if (clock != null) {
+                clock.detach();
+            }
+            completion.complete(null);
+        }
+    }
+
+    /**
+     * Opens the source and line, starts the feeder and drains the ring.
+     * Failures are reported here and rethrown to fail the completion future.
+     */
+    private void streamTrack() throws IOException, UnsupportedAudioFileException, LineUnavailableException {
+        AudioInputStream audioStream;
+        try {
+            audioStream = openPcm(location);
+        } catch (FileNotFoundException e) {
+            System.err.println("Audio file not found: " + location);
+            throw e;
+        } catch (UnsupportedAudioFileException e) {
+            System.err.println("Unsupported audio format: " + location);
+            throw e;
+        } catch (IOException e) {
+            System.err.println("Error reading audio file: " + e.getMessage());
+            throw e;
+        }
+
+        AudioFormat format = audioStream.getFormat();
+        long skipFrames = startFrame + (long) (startMillis * (double) format.getFrameRate() / 1000);
+        if (skipFrames > 0 && !skipTo(audioStream, skipFrames)) {
+            try {
+                audioStream.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+            throw new IOException("Audio track is shorter than the start position");
+        }
+        FEED_THREAD.execute(() -> feed(audioStream));
+
+        SourceDataLine output = null;
+        try {
+            DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
+            output = (SourceDataLine) AudioSystem.getLine(info);
+            output.addLineListener(this::onLineEvent);
+            int frameSize = Math.max(1, format.getFrameSize());
+            int lineBytes = (int) (format.getFrameRate() * LINE_BUFFER_MILLIS / 1000) * frameSize;
+            output.open(format, Math.max(lineBytes, CHUNK_BYTES));
+            line = output;
+
+            // Pre-fill one chunk so the first write does not start on an empty ring
+            ring.awaitLevel(CHUNK_BYTES, PREFILL_TIMEOUT_MILLIS);
+            if (stopped) {
+                return;
+            }
+
+            byte[] chunk = new byte[CHUNK_BYTES - CHUNK_BYTES % frameSize];
+            int bufferSize = output.getBufferSize();
+            long bytesWritten = 0;
+            // Queue the first chunk in the stopped line so sound starts the moment it is started
+            int read = ring.read(chunk, 0, chunk.length);
+            if (read > 0) {
+                bytesWritten += output.write(chunk, 0, read);
+            }
+            startSignal.await();
+            if (stopped) {
+                return;
+            }
+            synchronized (this) {
+                // A pause before this point leaves the line stopped until resume()
+                lineStarted = true;
+                if (!paused) {
+                    output.start();
+                }
+            }
+
+            while (!stopped && (read = ring.read(chunk, 0, chunk.length)) != -1) {
+                AudioBufferEvent event = new AudioBufferEvent();
+                event.begin();
+                int written = output.write(chunk, 0, read);
+                bytesWritten += written;
+                // What is still queued in the line has not been heard yet
+                long buffered = bufferSize - output.available();
+                if (clock != null) {
+                    clock.update(bytesWritten / frameSize, buffered / frameSize, format.getFrameRate());
+                }
+                event.end();
+                if (event.shouldCommit()) {
+                    event.bytes = written;
+                    event.lineBuffered = buffered;
+                    event.underruns = ring.getUnderruns();
+                    event.commit();
+                }
+            }
+            if (!stopped) {
+                output.drain();
+            }
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            // IllegalArgumentException: no installed line can play this format
+            System.err.println("Audio line unavailable: " + e.getMessage());
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            isPlaying = false;
+            ring.close();
+            if (output != null) {
+                output.close();
+            }
+            long underruns = ring.getUnderruns();
+            if (underruns > 0) {
+                System.err.println("Audio underruns: " + underruns);
+            }
+        }
+    }
+
+    /**
+     * Handles the line's START and STOP events: the line is only playing between the two.
+     * The first START is when the primed line actually began to play.
+     */
+    private void onLineEvent(LineEvent event) {
+        if (event.getType() == LineEvent.Type.START) {
+            isPlaying = true;
+            if (startupLatencyNanos < 0) {
+                startupLatencyNanos = System.nanoTime() - requestedNanos;
+            }
+        } else if (event.getType() == LineEvent.Type.STOP) {
+            isPlaying = false;
+        }
+    }
+
+    /**
+     * Skips the stream forward to the given frame.
+     *
+     * @return false if the stream could not be read that far
+     */
+    private static boolean skipTo(AudioInputStream audioStream, long frames) {
+        int frameSize = Math.max(1, audioStream.getFormat().getFrameSize());
+        long remaining = frames * frameSize;
+        byte[] discard = new byte[CHUNK_BYTES];
+        try {
+            while (remaining > 0) {
+                long skipped = audioStream.skip(remaining);
+                if (skipped <= 0) {
+                    // Some streams (decoders) cannot skip; read through instead
+                    skipped = audioStream.read(discard, 0, (int) Math.min(discard.length, remaining));
+                    if (skipped < 0) {
+                        System.err.println("Audio track is shorter than the start position");
+                        return false;
+                    }
+                }
+                remaining -= skipped;
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error reading audio file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Feeder thread body: copies PCM from the stream into the ring until EOF.
+     */
+    private void feed(AudioInputStream audioStream) {
+        byte[] chunk = new byte[CHUNK_BYTES];
+        try (AudioInputStream in = audioStream) {
+            int read;
+            while (!stopped && (read = in.read(chunk)) != -1) {
+                if (!ring.write(chunk, 0, read)) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading audio file: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ring.finish();
+        }
+    }
+
+    private static Thread audioThread(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Checks whether an audio resource exists on the classpath or the filesystem.
+     *
+     * @param location Classpath resource path or file path
+     * @return true if openPcm would find it
+     */
+    public static boolean isAvailable(String location) {
+        return StreamingAudioPlayer.class.getClassLoader().getResource(location) != null
+            || new File(location).isFile();
+    }
+
+    /**
+     * Opens an audio resource as signed PCM, preferring the classpath over the filesystem.
+     * MP3 tracks are decoded incrementally and cached as WAV; later runs play the cached copy.
+     *
+     * @param location Classpath resource path or file path
+     * @return Stream of PCM frames
+     */
+    static AudioInputStream openPcm(String location) throws IOException, UnsupportedAudioFileException {
+        if (location.toLowerCase(Locale.ROOT).endsWith(".mp3")) {
+            String key = PcmCache.keyOf(openSource(location));
+            Path cached = PcmCache.lookup(key);
+            if (cached != null) {
+                return AudioSystem.getAudioInputStream(cached.toFile());
+            }
+            Mp3PcmStream decoded = new Mp3PcmStream(new BufferedInputStream(openSource(location)), key);
+            return new AudioInputStream(decoded, decoded.getFormat(), AudioSystem.NOT_SPECIFIED);
+        }
+
+        // AudioSystem needs mark/reset to sniff the header
+        AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(openSource(location)));
+        AudioFormat format = source.getFormat();
+        if (format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED
+            || format.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED) {
+            return source;
+        }
+        AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+            format.getChannels(), format.getChannels() * 2, format.getSampleRate(), false);
+        return AudioSystem.getAudioInputStream(pcm, source);
+    }
+
+    /**
+     * Opens the raw bytes of an audio resource from the classpath or the filesystem.
+     */
+    private static InputStream openSource(String location) throws IOException {
+        InputStream resource = StreamingAudioPlayer.class.getClassLoader().getResourceAsStream(location);
+        if (resource != null) {
+            return resource;
+        }
+        File file = new File(location);
+        if (!file.isFile()) {
+            throw new FileNotFoundException(location);
+        }
+        return new FileInputStream(file);
+    }
+}
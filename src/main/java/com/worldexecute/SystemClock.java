@@ -0,0 +1,20 @@
+package com.worldexecute;
+
+/**
+ * SystemClock - Show clock backed by System.nanoTime().
+ * Used whenever nothing better (such as the audio position) is available.
+ */
+public class SystemClock implements ShowClock {
+
+    private volatile long originNanos = System.nanoTime();
+
+    @Override
+    public void start() {
+        originNanos = System.nanoTime();
+    }
+
+    @Override
+    public long positionNanos() {
+        return System.nanoTime() - originNanos;
+    }
+}
@@ -0,0 +1,304 @@
+package com.worldexecute;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * Terminal - Shared screen and renderer used by every effect.
+ * Effects draw into the screen model with print/println and call flush()
+ * once per frame; only the changed cells reach the real terminal.
+ *
+ * Features:
+ * - Terminal size detection (system properties, environment, stty)
+ * - Single shared back buffer for the whole show
+ * - Frame-at-a-time flushing to standard output or any other OutputSink
+ * - Terminal writes on a renderer thread, so a slow terminal does not hold up the show
+ * - Intermediate frames dropped when the terminal cannot keep up with the show
+ * - Per-thread layers, merged into the frame by a Compositor
+ */
+public class Terminal {
+
+    private static final int DEFAULT_COLUMNS = 120;
+    private static final int DEFAULT_ROWS = 30;
+    private static volatile long dropThresholdNanos =
+        Long.getLong("worldexecute.dropThresholdMillis", 40L) * 1_000_000L;
+
+    private static final Screen screen;
+    private static volatile TerminalRenderer renderer = new TerminalRenderer(QueuedSink.stdout());
+    private static volatile Compositor compositor;
+    private static final ThreadLocal<Layer> layer = new ThreadLocal<>();
+
+    static {
+        int[] size = detectSize();
+        screen = new Screen(size[0], size[1]);
+    }
+
+    /**
+     * Gets the screen model the calling thread draws into: its layer's screen
+     * if it has one, the shared screen otherwise.
+     *
+     * @return The screen effects on this thread draw into
+     */
+    public static Screen getScreen() {
+        return target();
+    }
+
+    /**
+     * Gets the screen drawing calls on the calling thread go to.
+     */
+    private static Screen target() {
+        Layer own = layer.get();
+        return own == null ? screen : own.getScreen();
+    }
+
+    /**
+     * Gets what is on the terminal: the composed frame while a Compositor is
+     * running, the shared screen otherwise.
+     */
+    public static Screen getDisplayedScreen() {
+        Compositor active = compositor;
+        return active == null ? screen : active.getComposed();
+    }
+
+    /**
+     * Makes the calling thread draw into a layer instead of the shared screen.
+     *
+     * @param target Layer for this thread, or null to draw into the shared screen again
+     */
+    public static void setLayer(Layer target) {
+        if (target == null) {
+            layer.remove();
+        } else {
+            layer.set(target);
+        }
+    }
+
+    /**
+     * Routes flushes of the shared screen through a compositor while it runs.
+     *
+     * @param active The running compositor, or null when it has stopped
+     */
+    static void setCompositor(Compositor active) {
+        compositor = active;
+    }
+
+    /**
+     * Draws text at the cursor without flushing.
+     *
+     * @param text Text, may contain ANSI color escapes
+     */
+    public static void print(String text) {
+        target().print(text);
+    }
+
+    /**
+     * Draws part of a char buffer at the cursor without flushing.
+     *
+     * @param text Buffer to draw from, may contain ANSI color escapes
+     * @param start Index of the first char to draw
+     * @param end Index after the last char to draw
+     */
+    public static void print(char[] text, int start, int end) {
+        target().print(text, start, end);
+    }
+
+    /**
+     * Draws a single character at the cursor without flushing.
+     *
+     * @param c Character, may be part of an ANSI color escape
+     */
+    public static void print(char c) {
+        target().put(c);
+    }
+
+    /**
+     * Draws text followed by a line break without flushing.
+     *
+     * @param text Text, may contain ANSI color escapes
+     */
+    public static void println(String text) {
+        Screen target = target();
+        target.print(text);
+        target.lineFeed();
+    }
+
+    /**
+     * Draws a line break without flushing.
+     */
+    public static void println() {
+        target().lineFeed();
+    }
+
+    /**
+     * Blanks the screen model; the terminal is cleared on the next flush.
+     */
+    public static void clear() {
+        target().clear();
+    }
+
+    /**
+     * Sends the current frame to the terminal. On a layer, or while a Compositor
+     * is running, the frame is published for the next composition instead.
+     *
+     * @return Number of bytes written, 0 if the frame was published
+     */
+    public static int flush() {
+        Layer own = layer.get();
+        if (own != null) {
+            own.publish();
+            return 0;
+        }
+        Compositor active = compositor;
+        if (active != null) {
+            active.getBase().publish();
+            return 0;
+        }
+        return renderer.flush(screen);
+    }
+
+    /**
+     * Flushes an intermediate frame of an effect, unless the show has fallen behind.
+     * A skipped frame stays in the screen model, so its content goes out with the
+     * next frame that is flushed; effects call flush() for their final frame.
+     *
+     * @return Number of bytes written, 0 if the frame was dropped
+     */
+    public static int flushFrame() {
+        if (isBehind()) {
+            ShowMetrics.shared().recordFramesDropped(1);
+            return 0;
+        }
+        return flush();
+    }
+
+    /**
+     * Checks whether the show is running so late that an intermediate frame should be
+     * skipped: the lateness of the current frame, plus what a flush usually costs,
+     * plus the frames the sink has queued but not written yet (see QueuedSink)
+     * exceeds -Dworldexecute.dropThresholdMillis (default 40).
+     *
+     * @return true if intermediate frames should be dropped
+     */
+    public static boolean isBehind() {
+        TerminalRenderer current = renderer;
+        long lateness = TimelineScheduler.current().getLatenessNanos();
+        return lateness + current.getAverageFlushNanos() + current.getSink().getBacklogNanos()
+            > dropThresholdNanos;
+    }
+
+    /**
+     * Overrides -Dworldexecute.dropThresholdMillis, e.g. to force or forbid dropping in tests.
+     *
+     * @param nanos Budget in nanoseconds; 0 drops whenever a flush has cost anything
+     */
+    static void setDropThresholdNanos(long nanos) {
+        dropThresholdNanos = nanos;
+    }
+
+    /**
+     * Forces a full redraw on the next flush, e.g. after reading user input.
+     */
+    public static void invalidate() {
+        renderer.invalidate();
+    }
+
+    /**
+     * Resets terminal state (colors, scroll region) before the program exits,
+     * and waits until everything has been written.
+     */
+    public static void restore() {
+        renderer.flush(screen);
+        renderer.restore();
+        try {
+            renderer.getSink().sync();
+        } catch (IOException e) {
+            System.err.println("Error writing to terminal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends all further frames to another sink, e.g. for headless runs.
+     * The next flush redraws the whole screen into the new sink.
+     *
+     * @param sink Destination for rendered frames
+     */
+    public static void setSink(OutputSink sink) {
+        renderer = new TerminalRenderer(sink);
+    }
+
+    /**
+     * Gets the renderer frames currently go through, e.g. to read its byte counts.
+     */
+    public static TerminalRenderer getRenderer() {
+        return renderer;
+    }
+
+    /**
+     * Gets the sink frames are currently written to.
+     */
+    public static OutputSink getSink() {
+        return renderer.getSink();
+    }
+
+    /**
+     * Determines the screen size in columns and rows.
+     *
+     * @return Array of {columns, rows}
+     */
+    private static int[] detectSize() {
+        int columns = parseSize(System.getProperty("worldexecute.columns"), 0);
+        int rows = parseSize(System.getProperty("worldexecute.rows"), 0);
+        if (columns == 0) {
+            columns = parseSize(System.getenv("COLUMNS"), 0);
+        }
+        if (rows == 0) {
+            rows = parseSize(System.getenv("LINES"), 0);
+        }
+        if ((columns == 0 || rows == 0) && System.console() != null && new File("/dev/tty").exists()) {
+            int[] stty = querySttySize();
+            if (stty != null) {
+                rows = rows == 0 ? stty[0] : rows;
+                columns = columns == 0 ? stty[1] : columns;
+            }
+        }
+        return new int[] {
+            columns == 0 ? DEFAULT_COLUMNS : columns,
+            rows == 0 ? DEFAULT_ROWS : rows
+        };
+    }
+
+    private static int[] querySttySize() {
+        try {
+            Process process = new ProcessBuilder("sh", "-c", "stty size < /dev/tty").start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length != 2) {
+                    return null;
+                }
+                int rows = parseSize(parts[0], 0);
+                int columns = parseSize(parts[1], 0);
+                return rows > 0 && columns > 0 ? new int[] {rows, columns} : null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static int parseSize(String value, int fallback) {
+        if (value == null || value.isEmpty()) {
+            return fallback;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            return parsed > 0 ? parsed : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
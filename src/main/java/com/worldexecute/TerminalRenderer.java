@@ -0,0 +1,346 @@
+package com.worldexecute;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * TerminalRenderer - Diff-based flusher from a Screen to a real terminal.
+ * Keeps a front grid mirroring what the terminal currently shows, compares it
+ * against the screen's back grid and emits only the cursor moves, color
+ * changes and characters needed to bring the terminal up to date.
+ * Each frame is assembled in a reusable buffer from pre-encoded escape
+ * sequences (see Ansi) and written in one call.
+ *
+ * Features:
+ * - Minimal cursor movement (short gaps are overwritten instead of jumped)
+ * - Color escapes only when the attribute actually changes
+ * - Scrolls and clears replayed as single escape sequences
+ */
+public class TerminalRenderer {
+
+    private static final int MAX_GAP_FILL = 4;
+
+    private final OutputSink out;
+    private CellGrid front;
+
+    private byte[] buffer = new byte[8192];
+    private int length;
+
+    private long bytesWritten;
+    private long frames;
+    private volatile long averageFlushNanos;
+
+    private int termRow;
+    private int termCol;
+    private int termColor;
+    private boolean initialized;
+    private boolean fullRepaint;
+
+    /**
+     * Creates a renderer writing to the given stream.
+     *
+     * @param out Destination stream, typically System.out
+     */
+    public TerminalRenderer(OutputStream out) {
+        this(new StreamSink(out));
+    }
+
+    /**
+     * Creates a renderer writing to the given sink.
+     *
+     * @param out Destination sink
+     */
+    public TerminalRenderer(OutputSink out) {
+        this.out = out;
+    }
+
+    /**
+     * Gets the sink frames are written to.
+     */
+    public OutputSink getSink() {
+        return out;
+    }
+
+    /**
+     * Gets the total number of bytes written by flush().
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Gets how many non-empty frames flush() has written.
+     */
+    public long getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * Gets the moving average of how long writing a frame to the sink takes,
+     * including any time the sink blocks because the terminal is behind.
+     *
+     * @return Average in nanoseconds
+     */
+    public long getAverageFlushNanos() {
+        return averageFlushNanos;
+    }
+
+    /**
+     * Forces the next flush to clear the terminal and redraw every cell.
+     * Use this after something outside the renderer wrote to the terminal.
+     */
+    public void invalidate() {
+        fullRepaint = true;
+    }
+
+    /**
+     * Writes the difference between the terminal and the screen in one write.
+     *
+     * @param screen Screen whose back grid should become visible
+     * @return Number of bytes written
+     */
+    public int flush(Screen screen) {
+        length = 0;
+        CellGrid back = screen.getBackGrid();
+        if (front == null || front.getWidth() != back.getWidth() || front.getHeight() != back.getHeight()) {
+            front = new CellGrid(back.getWidth(), back.getHeight());
+            initialized = false;
+        }
+
+        boolean cleared = screen.takePendingClear();
+        int scroll = screen.takePendingScroll();
+
+        if (!initialized || fullRepaint) {
+            appendSgr(0);
+            appendCsi(1, front.getHeight(), 'r');
+            appendClear();
+            initialized = true;
+            fullRepaint = false;
+        } else if (cleared || scroll >= front.getHeight()) {
+            appendClear();
+        } else if (scroll > 0) {
+            appendCsi(scroll, 'S');
+            front.scrollUp(scroll);
+        }
+
+        appendDiff(back);
+        parkCursor(screen);
+
+        if (length > 0) {
+            FlushEvent event = new FlushEvent();
+            event.begin();
+            long start = System.nanoTime();
+            try {
+                out.write(buffer, 0, length);
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("Error writing to terminal: " + e.getMessage());
+            }
+            long elapsed = System.nanoTime() - start;
+            averageFlushNanos += (elapsed - averageFlushNanos) >> 3;
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytes = length;
+                event.commit();
+            }
+            bytesWritten += length;
+            frames++;
+            ShowMetrics.shared().recordFlush(length, elapsed);
+        }
+        return length;
+    }
+
+    /**
+     * Writes a complete picture of the screen for a terminal that joins mid-show.
+     * Unlike flush(), the screen's pending scroll and clear are left alone, and the
+     * terminal is left in the given color so it matches the renderer whose diffs
+     * will follow.
+     *
+     * @param screen Screen to draw
+     * @param finalColor SGR color the following diff frames assume
+     * @return Number of bytes written
+     */
+    public int keyframe(Screen screen, int finalColor) {
+        length = 0;
+        CellGrid back = screen.getBackGrid();
+        if (front == null || front.getWidth() != back.getWidth() || front.getHeight() != back.getHeight()) {
+            front = new CellGrid(back.getWidth(), back.getHeight());
+        }
+        appendSgr(0);
+        appendCsi(1, front.getHeight(), 'r');
+        appendClear();
+        appendDiff(back);
+        parkCursor(screen);
+        if (termColor != finalColor) {
+            appendSgr(finalColor);
+        }
+        initialized = true;
+        fullRepaint = false;
+
+        try {
+            out.write(buffer, 0, length);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing to terminal: " + e.getMessage());
+        }
+        return length;
+    }
+
+    /**
+     * Gets the SGR color the terminal was last left in.
+     */
+    int getTermColor() {
+        return termColor;
+    }
+
+    /**
+     * Resets colors and the scroll region and leaves the cursor below the screen.
+     */
+    public void restore() {
+        length = 0;
+        appendSgr(0);
+        append(Ansi.RESET_SCROLL_REGION);
+        if (front != null) {
+            appendCsi(front.getHeight(), 1, 'H');
+        }
+        append((byte) '\n');
+        try {
+            out.write(buffer, 0, length);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing to terminal: " + e.getMessage());
+        }
+        initialized = false;
+    }
+
+    private void appendDiff(CellGrid back) {
+        int width = back.getWidth();
+        for (int row = 0; row < back.getHeight(); row++) {
+            for (int col = 0; col < width; col++) {
+                if (!back.differs(front, row, col)) {
+                    continue;
+                }
+                moveTo(back, row, col);
+                writeCell(back, row, col);
+            }
+        }
+    }
+
+    private void moveTo(CellGrid back, int row, int col) {
+        if (termRow == row && termCol == col) {
+            return;
+        }
+        if (termRow == row && termCol < col && col - termCol <= MAX_GAP_FILL) {
+            // Rewriting a few unchanged cells is shorter than a cursor escape
+            while (termCol < col) {
+                writeCell(back, row, termCol);
+            }
+            return;
+        }
+        appendCsi(row + 1, col + 1, 'H');
+        termRow = row;
+        termCol = col;
+    }
+
+    private void writeCell(CellGrid back, int row, int col) {
+        byte color = back.colorAt(row, col);
+        if (color != termColor) {
+            appendSgr(color);
+        }
+        int codepoint = back.codepointAt(row, col);
+        appendCodepoint(codepoint);
+        front.set(row, col, codepoint, color);
+        termCol++;
+    }
+
+    private void parkCursor(Screen screen) {
+        int row = screen.getCursorRow();
+        int col = Math.min(screen.getCursorCol(), front.getWidth() - 1);
+        if (termRow != row || termCol != col) {
+            appendCsi(row + 1, col + 1, 'H');
+            termRow = row;
+            termCol = col;
+        }
+    }
+
+    private void appendClear() {
+        append(Ansi.CLEAR);
+        front.clear();
+        termRow = 0;
+        termCol = 0;
+    }
+
+    private void appendSgr(int color) {
+        append(Ansi.sgr(color));
+        termColor = color;
+    }
+
+    private void appendCsi(int param, char command) {
+        ensureCapacity(16);
+        System.arraycopy(Ansi.CSI, 0, buffer, length, Ansi.CSI.length);
+        length += Ansi.CSI.length;
+        appendInt(param);
+        buffer[length++] = (byte) command;
+    }
+
+    private void appendCsi(int first, int second, char command) {
+        ensureCapacity(24);
+        System.arraycopy(Ansi.CSI, 0, buffer, length, Ansi.CSI.length);
+        length += Ansi.CSI.length;
+        appendInt(first);
+        buffer[length++] = ';';
+        appendInt(second);
+        buffer[length++] = (byte) command;
+    }
+
+    private void appendInt(int value) {
+        byte[] digits = Ansi.decimal(value);
+        if (digits != null) {
+            System.arraycopy(digits, 0, buffer, length, digits.length);
+            length += digits.length;
+            return;
+        }
+        if (value >= 10) {
+            appendInt(value / 10);
+        }
+        buffer[length++] = (byte) ('0' + value % 10);
+    }
+
+    private void appendCodepoint(int codepoint) {
+        ensureCapacity(4);
+        if (codepoint < 0x80) {
+            buffer[length++] = (byte) codepoint;
+        } else if (codepoint < 0x800) {
+            buffer[length++] = (byte) (0xC0 | (codepoint >> 6));
+            buffer[length++] = (byte) (0x80 | (codepoint & 0x3F));
+        } else if (codepoint < 0x10000) {
+            buffer[length++] = (byte) (0xE0 | (codepoint >> 12));
+            buffer[length++] = (byte) (0x80 | ((codepoint >> 6) & 0x3F));
+            buffer[length++] = (byte) (0x80 | (codepoint & 0x3F));
+        } else {
+            buffer[length++] = (byte) (0xF0 | (codepoint >> 18));
+            buffer[length++] = (byte) (0x80 | ((codepoint >> 12) & 0x3F));
+            buffer[length++] = (byte) (0x80 | ((codepoint >> 6) & 0x3F));
+            buffer[length++] = (byte) (0x80 | (codepoint & 0x3F));
+        }
+    }
+
+    private void append(byte value) {
+        ensureCapacity(1);
+        buffer[length++] = value;
+    }
+
+    private void append(byte[] sequence) {
+        ensureCapacity(sequence.length);
+        System.arraycopy(sequence, 0, buffer, length, sequence.length);
+        length += sequence.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            byte[] larger = new byte[Math.max(buffer.length * 2, length + extra)];
+            System.arraycopy(buffer, 0, larger, 0, length);
+            buffer = larger;
+        }
+    }
+}
@@ -1,8 +1,7 @@
 package com.worldexecute;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.Locale;
 
 /**
  * TextAnimator - Standalone utility for text animation effects.
@@ -16,27 +15,42 @@
  */
 public class TextAnimator {
 
-    private static final Random random = new Random();
+    private static final int SHUFFLE_FRAME_MILLIS = 50;
+    private static final int WORLD_BARS = 69;
+    private static final int WORLD_DELAY = 187;
+    private static final int WORLD2_DELAY = 181;
+
+    private static final ProgressBar WORLD_BAR = new ProgressBar(WORLD_BARS, TextAnimator::worldPercent,
+        "Adding. 'You' and 'Me'.",
+        "Generating the Universe",
+        "Adding Star and Moons..",
+        "Crafting the Narrative.");
+    private static final ProgressBar WORLD2_BAR = new ProgressBar(WORLD_BARS, TextAnimator::worldPercent,
+        "4$@(*&$J$@", "A@$@$%%#", "$%#%.", "Alice");
 
     /**
      * Shuffles the characters in a string randomly.
+     * Deterministic for a given session seed (see SessionRandom).
      *
      * @param unshuffled The original string
      * @return Character array with shuffled characters
      */
     public static char[] shuffleWords(String unshuffled) {
-        char[] charArray = unshuffled.toCharArray();
-
-        for (int i = charArray.length - 1; i > 0; i--) {
-            int j = random.nextInt(i + 1);
-            char temp = charArray[i];
-            charArray[i] = charArray[j];
-            charArray[j] = temp;
-        }
-
+        char[] charArray = new char[unshuffled.length()];
+        shuffleInto(unshuffled, charArray);
         return charArray;
     }
 
+    /**
+     * Shuffles the characters in a string into a reused buffer without allocating.
+     *
+     * @param unshuffled The original string
+     * @param out Buffer of at least unshuffled.length() chars
+     */
+    public static void shuffleInto(String unshuffled, char[] out) {
+        PermutationTables.shuffleInto(unshuffled, out, SessionRandom.current());
+    }
+
     /**
      * Animates text by shuffling characters multiple times before displaying final text.
      * Creates a "decryption" or "glitch" effect.
@@ -48,34 +62,49 @@ public static char[] shuffleWords(String unshuffled) {
      * @param sepColor If true, only the animated word is colored; if false, entire line is colored
      */
     public static void animateText(String animateWord, String actorTalk, String color, int loops, boolean sepColor) {
-        System.out.print("\r");
+        Terminal.print('\r');
 
-        // Shuffle animation phase
+        // Shuffle animation phase; every frame reuses one buffer
+        char[] shuffled = new char[animateWord.length()];
         for (int a = 0; a < loops; a++) {
-            String shuffled = new String(shuffleWords(animateWord));
-            System.out.print(actorTalk + " " + shuffled + "\r");
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            // Shuffle even when the frame is dropped, so later frames draw the same values at any terminal speed
+            shuffleInto(animateWord, shuffled);
+            if (Terminal.isBehind()) {
+                // The final text overwrites every shuffle frame, so a late one is simply skipped
+                ShowMetrics.shared().recordFramesDropped(1);
+                TimelineScheduler.pace(SHUFFLE_FRAME_MILLIS);
+                continue;
             }
+            Terminal.print(actorTalk);
+            Terminal.print(' ');
+            Terminal.print(shuffled, 0, shuffled.length);
+            Terminal.print('\r');
+            Terminal.flush();
+            TimelineScheduler.pace(SHUFFLE_FRAME_MILLIS);
         }
 
         // Final display with color
-        String colorCode = getColorCode(color);
-
+        Terminal.print('\r');
         if (sepColor) {
-            System.out.print("\r" + actorTalk + " " + ConsoleUtils.YELLOW + animateWord + ConsoleUtils.RESET);
+            Terminal.print(actorTalk);
+            Terminal.print(' ');
+            Terminal.print(ConsoleUtils.YELLOW);
         } else {
-            System.out.print("\r" + colorCode + actorTalk + " " + animateWord + ConsoleUtils.RESET);
+            Terminal.print(Ansi.colorCode(color));
+            Terminal.print(actorTalk);
+            Terminal.print(' ');
         }
+        Terminal.print(animateWord);
+        Terminal.print(ConsoleUtils.RESET);
 
-        System.out.println();
+        Terminal.println();
+        Terminal.flush();
     }
 
     /**
      * Creates an "encrypt wall" effect by rapidly cycling through lines of text.
      * Each line replaces the previous one with a carriage return, creating a flickering effect.
+     * A cycle that starts while the show is behind is shortened to its last frame.
      *
      * @param loopAmount Number of times to cycle through all lines
      * @param wordBlock List of text lines to cycle through
@@ -84,59 +113,39 @@ public static void encryptWall(int loopAmount, List<String> wordBlock) {
         int sleepAmount = (int) Math.ceil(100.0 / loopAmount);
 
         for (int i = 0; i < loopAmount; i++) {
-            for (String line : wordBlock) {
-                System.out.print(line + "\r");
-                try {
-                    Thread.sleep(sleepAmount);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+            if (Terminal.isBehind()) {
+                // The lines still overwrite each other on the screen, so the cycle ends on the same text
+                for (String line : wordBlock) {
+                    Terminal.print(line);
+                    Terminal.print('\r');
+                }
+                ShowMetrics.shared().recordFramesDropped(wordBlock.size());
+                TimelineScheduler.pace((long) sleepAmount * wordBlock.size());
+            } else {
+                for (String line : wordBlock) {
+                    Terminal.print(line);
+                    Terminal.print('\r');
+                    Terminal.flushFrame();
+                    TimelineScheduler.pace(sleepAmount);
                 }
             }
-            System.out.println();
+            Terminal.println();
+            Terminal.flush();
         }
     }
 
     /**
      * Simulates world generation with a progress bar and random status messages.
+     * The Seed ID it shows is the session seed (see SessionRandom), so a run can
+     * be repeated with --seed.
      *
      * @param worldType World type identifier (for loading different world configurations)
      */
     public static void simulateWorld(int worldType) {
-        int totalBars = 69;
-        int delay = 187;
-        String[] phrases = {
-            "Adding. 'You' and 'Me'.",
-            "Generating the Universe",
-            "Adding Star and Moons..",
-            "Crafting the Narrative."
-        };
-
-        System.out.println("████████Generating World████████");
-        System.out.println("Seed ID: 03108891624980232");
-
-        for (int i = 0; i <= totalBars; i++) {
-            String randomPhrase = phrases[random.nextInt(phrases.length)];
-            StringBuilder progressBar = new StringBuilder(randomPhrase + " [");
-
-            for (int j = 0; j < i; j++) {
-                progressBar.append('#');
-            }
-            for (int j = i; j < totalBars; j++) {
-                progressBar.append('-');
-            }
-            progressBar.append("]");
-
-            double percent = Math.ceil(i * 10 / 6.9);
-            System.out.print("\r" + progressBar + " " + (int) percent + "%");
-
-            try {
-                Thread.sleep(delay);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
-
-        System.out.println();
+        Terminal.println("████████Generating World████████");
+        // Zero-padded to the width of the ID the show has always printed for the default seed
+        Terminal.println(String.format(Locale.ROOT, "Seed ID: %017d", SessionRandom.getSeed()));
+        runWorldBar(WORLD_BAR, WORLD_DELAY);
     }
 
     /**
@@ -145,66 +154,76 @@ public static void simulateWorld(int worldType) {
      * @param worldType World type identifier
      */
     public static void simulateWorld2(int worldType) {
-        int totalBars = 69;
-        int delay = 181;
-        String[] phrases = {"4$@(*&$J$@", "A@$@$%%#", "$%#%.", "Alice"};
-
-        System.out.println("Lobotomy Corp. INC - 2022");
-        System.out.println("4129@$_(921242421");
-        System.out.println("42@#@!#24124");
+        Terminal.println("Lobotomy Corp. INC - 2022");
+        Terminal.println("4129@$_(921242421");
+        Terminal.println("42@#@!#24124");
+        runWorldBar(WORLD2_BAR, WORLD2_DELAY);
+    }
 
-        for (int i = 0; i <= totalBars; i++) {
-            String randomPhrase = phrases[random.nextInt(phrases.length)];
-            StringBuilder progressBar = new StringBuilder(randomPhrase + " [");
+    /**
+     * Fills a world generation bar one cell per frame, with a random phrase each frame.
+     *
+     * @param bar The bar to draw
+     * @param delay Delay between frames in milliseconds
+     */
+    private static void runWorldBar(ProgressBar bar, int delay) {
+        Screen screen = Terminal.getScreen();
+        for (int i = 0; i <= bar.getWidth(); i++) {
+            bar.draw(screen, i, SessionRandom.current().nextInt(bar.getPhraseCount()));
+            Terminal.flushFrame();
+            TimelineScheduler.pace(delay);
+        }
 
-            for (int j = 0; j < i; j++) {
-                progressBar.append('#');
-            }
-            for (int j = i; j < totalBars; j++) {
-                progressBar.append('-');
-            }
-            progressBar.append("]");
+        Terminal.println();
+        Terminal.flush();
+    }
 
-            double percent = Math.ceil(i * 10 / 6.9);
-            System.out.print("\r" + progressBar + " " + (int) percent + "%");
+    /**
+     * Computes how long animateText paces for.
+     *
+     * @param loops Number of shuffle iterations
+     * @return Nominal duration in milliseconds
+     */
+    public static long animateTextDuration(int loops) {
+        return (long) loops * SHUFFLE_FRAME_MILLIS;
+    }
 
-            try {
-                Thread.sleep(delay);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+    /**
+     * Computes how long encryptWall paces for.
+     *
+     * @param loopAmount Number of times to cycle through all lines
+     * @param lineCount Number of lines in the wall
+     * @return Nominal duration in milliseconds
+     */
+    public static long encryptWallDuration(int loopAmount, int lineCount) {
+        if (loopAmount <= 0) {
+            return 0;
         }
+        return (long) loopAmount * lineCount * (int) Math.ceil(100.0 / loopAmount);
+    }
 
-        System.out.println();
+    /**
+     * Computes how long simulateWorld paces for.
+     *
+     * @return Nominal duration in milliseconds
+     */
+    public static long simulateWorldDuration() {
+        return (long) (WORLD_BARS + 1) * WORLD_DELAY;
     }
 
     /**
-     * Gets the ANSI color code for a color name.
+     * Computes how long simulateWorld2 paces for.
      *
-     * @param color Color name (green, blue, yellow, red, cyan)
-     * @return ANSI color code string
+     * @return Nominal duration in milliseconds
      */
-    private static String getColorCode(String color) {
-        if (color == null || color.isEmpty()) {
-            return ConsoleUtils.GREEN;
-        }
+    public static long simulateWorld2Duration() {
+        return (long) (WORLD_BARS + 1) * WORLD2_DELAY;
+    }
 
-        switch (color.toLowerCase()) {
-            case "green":
-                return ConsoleUtils.GREEN;
-            case "blue":
-            case "cyan":
-                return ConsoleUtils.CYAN;
-            case "yellow":
-                return ConsoleUtils.YELLOW;
-            case "red":
-                return ConsoleUtils.RED;
-            case "purple":
-                return ConsoleUtils.PURPLE;
-            case "white":
-                return ConsoleUtils.WHITE;
-            default:
-                return ConsoleUtils.GREEN;
-        }
+    /**
+     * Percentage shown by the world bars; reaches 100 at the last of the 69 cells.
+     */
+    private static int worldPercent(int step) {
+        return (int) Math.ceil(step * 10 / 6.9);
     }
 }
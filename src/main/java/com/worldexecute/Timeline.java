@@ -0,0 +1,198 @@
+package com.worldexecute;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timeline - Indexed sequence of compiled cues.
+ * Start times are precomputed, so looking up the cue playing at a given
+ * moment is a binary search rather than a replay. Named chapters map to the
+ * index of their first cue. Cues, start times and chapters never change.
+ *
+ * The layers the cue sheet declares come with the timeline and are not
+ * immutable: each holds the screen and random stream of the run playing it,
+ * and is reset when a run starts. A timeline therefore plays one run at a
+ * time; compile it again for runs that overlap.
+ */
+public final class Timeline implements Iterable<Cue> {
+
+    private final List<Cue> cues;
+    private final long[] starts;
+    private final long durationMillis;
+    private final Map<String, Integer> chapters;
+    private final Map<String, Layer> layers;
+
+    /**
+     * Creates a timeline from cues already ordered by start time.
+     *
+     * @param cues Compiled cues
+     * @param chapters Chapter names in show order, mapped to the index of their first cue
+     * @param layers Layers cues may draw into, by name
+     */
+    Timeline(List<Cue> cues, Map<String, Integer> chapters, Map<String, Layer> layers) {
+        this.cues = Collections.unmodifiableList(new ArrayList<>(cues));
+        this.chapters = Collections.unmodifiableMap(new LinkedHashMap<>(chapters));
+        this.layers = Collections.unmodifiableMap(new LinkedHashMap<>(layers));
+        this.starts = new long[cues.size()];
+        long end = 0;
+        for (int i = 0; i < starts.length; i++) {
+            Cue cue = cues.get(i);
+            starts[i] = cue.getStartMillis();
+            end = Math.max(end, cue.getEndMillis());
+        }
+        this.durationMillis = end;
+    }
+
+    public int size() {
+        return cues.size();
+    }
+
+    public Cue get(int index) {
+        return cues.get(index);
+    }
+
+    public List<Cue> getCues() {
+        return cues;
+    }
+
+    /**
+     * Gets the nominal length of the whole show.
+     *
+     * @return Duration in milliseconds
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Gets the layers declared in the cue sheet.
+     */
+    public List<Layer> getLayers() {
+        return new ArrayList<>(layers.values());
+    }
+
+    /**
+     * Gets the layer a cue draws into.
+     *
+     * @param cue A cue of this timeline
+     * @return The cue's layer, or null if it draws into the shared screen
+     */
+    public Layer layerOf(Cue cue) {
+        return cue.getLayer() == null ? null : layers.get(cue.getLayer());
+    }
+
+    /**
+     * Gets the chapter names in show order.
+     */
+    public List<String> getChapterNames() {
+        return new ArrayList<>(chapters.keySet());
+    }
+
+    /**
+     * Finds the first cue of a chapter.
+     *
+     * @param name Chapter name as written in the cue sheet
+     * @return Index of the chapter's first cue, or -1 if there is no such chapter
+     */
+    public int indexOfChapter(String name) {
+        Integer index = chapters.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets the name of the chapter that begins with the given cue.
+     *
+     * @param index Cue index
+     * @return The chapter name, or null if no chapter starts there
+     */
+    public String chapterStartingAt(int index) {
+        for (Map.Entry<String, Integer> chapter : chapters.entrySet()) {
+            if (chapter.getValue() == index) {
+                return chapter.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds where a run asked to start at a chapter or a time should begin.
+     * A time falls back to the start of the cue playing at that moment.
+     *
+     * @param position Chapter name, seconds ("83.5") or minutes and seconds ("1:23.5")
+     * @return Index of the cue to start at, or -1 if the position is neither a chapter nor a time
+     */
+    public int indexOfPosition(String position) {
+        int chapter = indexOfChapter(position);
+        if (chapter >= 0) {
+            return chapter;
+        }
+        long millis = parsePosition(position);
+        return millis < 0 ? -1 : Math.max(0, indexAt(millis));
+    }
+
+    /**
+     * Parses a show position given as seconds ("83.5") or minutes and seconds ("1:23.5").
+     * Neither part may carry a sign, and the seconds after a colon must be below 60.
+     *
+     * @return Position in milliseconds, or -1 if it cannot be parsed
+     */
+    static long parsePosition(String value) {
+        try {
+            int colon = value.indexOf(':');
+            String secondsPart = value.substring(colon + 1);
+            if (!isUnsigned(value) || !isUnsigned(secondsPart)) {
+                return -1;
+            }
+            double seconds = Double.parseDouble(secondsPart);
+            // parseDouble also accepts "1e400", which overflows to Infinity
+            if (!Double.isFinite(seconds) || (colon >= 0 && seconds >= 60)) {
+                return -1;
+            }
+            if (colon >= 0) {
+                seconds += Integer.parseInt(value.substring(0, colon)) * 60.0;
+            }
+            return Math.round(seconds * 1000);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Checks that a number starts with a digit or a decimal point, which rules
+     * out signs as well as "NaN" and "Infinity".
+     */
+    private static boolean isUnsigned(String number) {
+        return !number.isEmpty() && (Character.isDigit(number.charAt(0)) || number.charAt(0) == '.');
+    }
+
+    /**
+     * Finds the cue that is playing at the given offset.
+     *
+     * @param offsetMillis Offset from the start of the show
+     * @return Index of the last cue starting at or before the offset, or -1 if none has started
+     */
+    public int indexAt(long offsetMillis) {
+        int low = 0;
+        int high = starts.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= offsetMillis) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Iterator<Cue> iterator() {
+        return cues.iterator();
+    }
+}
@@ -0,0 +1,281 @@
+package com.worldexecute;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * TimelineScheduler - Absolute-deadline pacing for the whole show.
+ * Every delay in the show advances a single timeline position measured from
+ * one shared start instant. Waiting is always done against the absolute
+ * deadline (start + position), so write latency and sleep overshoot never
+ * accumulate: a cue that runs late simply waits less (or not at all) and the
+ * next one is back on schedule.
+ *
+ * Deadlines are measured on a ShowClock. With the default SystemClock that is
+ * the wall clock; with an AudioClock every cue (and every character delay in
+ * between) is released when the music reaches it, so effects stretch or
+ * compress automatically to follow the audio.
+ *
+ * Features:
+ * - Park-until-deadline with a short busy-spin tail for sub-millisecond accuracy
+ * - Configurable spin budget (0 disables spinning entirely)
+ * - Catch-up instead of push-back for late cues
+ * - Starting mid-show (startAt), with the clock counting from that offset
+ * - Per-thread timelines (fork) for effects running side by side on layers
+ * - Late deadlines reported to ShowMetrics for diagnosing drift
+ */
+public class TimelineScheduler {
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long DEFAULT_SPIN_NANOS = 250_000L;
+
+    private static volatile TimelineScheduler shared = new TimelineScheduler(defaultSpinNanos());
+    private static final ThreadLocal<TimelineScheduler> local = new ThreadLocal<>();
+
+    private final long spinNanos;
+    private final ShowClock clock;
+    private volatile boolean started;
+    private volatile long originNanos;
+    private long positionNanos;
+
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param spinNanos Length of the busy-spin tail before each deadline in nanoseconds.
+     *                  This is the CPU budget per wait; 0 means park only.
+     */
+    public TimelineScheduler(long spinNanos) {
+        this(spinNanos, new SystemClock());
+    }
+
+    /**
+     * Creates a scheduler that paces against the given clock.
+     *
+     * @param spinNanos Length of the busy-spin tail before each deadline in nanoseconds
+     * @param clock Clock that deadlines are measured on
+     */
+    public TimelineScheduler(long spinNanos, ShowClock clock) {
+        if (spinNanos < 0) {
+            throw new IllegalArgumentException("Spin budget must not be negative: " + spinNanos);
+        }
+        this.spinNanos = spinNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the spin budget configured with -Dworldexecute.spinMicros (default 250).
+     *
+     * @return Spin budget in nanoseconds
+     */
+    public static long defaultSpinNanos() {
+        return Long.getLong("worldexecute.spinMicros", DEFAULT_SPIN_NANOS / 1000L) * 1000L;
+    }
+
+    /**
+     * Gets the scheduler shared by every effect.
+     *
+     * @return The shared scheduler
+     */
+    public static TimelineScheduler shared() {
+        return shared;
+    }
+
+    /**
+     * Replaces the shared scheduler, e.g. to change the spin budget.
+     *
+     * @param scheduler Scheduler to use from now on
+     */
+    public static void setShared(TimelineScheduler scheduler) {
+        shared = scheduler;
+    }
+
+    /**
+     * Gives the calling thread its own scheduler, e.g. a fork for an effect on a layer.
+     *
+     * @param scheduler Scheduler for this thread, or null to use the shared one again
+     */
+    public static void setLocal(TimelineScheduler scheduler) {
+        if (scheduler == null) {
+            local.remove();
+        } else {
+            local.set(scheduler);
+        }
+    }
+
+    /**
+     * Gets the scheduler the calling thread paces against: its own if it has one,
+     * the shared one otherwise.
+     *
+     * @return The current thread's scheduler
+     */
+    public static TimelineScheduler current() {
+        TimelineScheduler scheduler = local.get();
+        return scheduler == null ? shared : scheduler;
+    }
+
+    /**
+     * Advances the current thread's timeline and waits for the new deadline.
+     * Drop-in replacement for Thread.sleep inside effects.
+     *
+     * @param milliseconds Nominal delay in milliseconds
+     */
+    public static void pace(long milliseconds) {
+        current().advance(milliseconds);
+    }
+
+    /**
+     * Marks the shared start instant; position zero of the timeline is now.
+     */
+    public void start() {
+        startAt(0);
+    }
+
+    /**
+     * Starts the timeline part way through: the given offset is now, and the
+     * clock's position is counted from there.
+     *
+     * @param offsetNanos Timeline position to start at
+     */
+    public synchronized void startAt(long offsetNanos) {
+        clock.start();
+        originNanos = offsetNanos;
+        positionNanos = offsetNanos;
+        started = true;
+    }
+
+    /**
+     * Creates a scheduler with its own timeline position on the same clock, already
+     * started where this one's clock is now. The clock is not restarted, so cues
+     * awaited on the fork line up with the ones awaited here.
+     *
+     * @return A started scheduler for another thread
+     */
+    public synchronized TimelineScheduler fork() {
+        ensureStarted();
+        TimelineScheduler fork = new TimelineScheduler(spinNanos, clock);
+        fork.originNanos = originNanos;
+        fork.positionNanos = now();
+        fork.started = true;
+        return fork;
+    }
+
+    /**
+     * Starts the timeline unless it is already running.
+     */
+    public synchronized void ensureStarted() {
+        if (!started) {
+            start();
+        }
+    }
+
+    /**
+     * Advances the timeline position and waits until its absolute deadline.
+     *
+     * @param milliseconds Amount to advance in milliseconds
+     */
+    public void advance(long milliseconds) {
+        long deadline;
+        synchronized (this) {
+            ensureStarted();
+            positionNanos += milliseconds * NANOS_PER_MILLI;
+            deadline = positionNanos;
+        }
+        awaitDeadline(deadline);
+    }
+
+    /**
+     * Moves the timeline position to an absolute offset and waits for it.
+     * Used to release a cue at its scheduled start time.
+     *
+     * @param offsetMillis Offset from the start instant in milliseconds
+     */
+    public void awaitOffset(long offsetMillis) {
+        awaitOffsetNanos(offsetMillis * NANOS_PER_MILLI);
+    }
+
+    /**
+     * Moves the timeline position to an absolute offset and waits for it,
+     * for callers with sub-millisecond timestamps (e.g. recorded frames).
+     *
+     * @param offsetNanos Offset from the start instant in nanoseconds
+     */
+    public void awaitOffsetNanos(long offsetNanos) {
+        long deadline;
+        synchronized (this) {
+            ensureStarted();
+            positionNanos = offsetNanos;
+            deadline = positionNanos;
+        }
+        awaitDeadline(deadline);
+    }
+
+    /**
+     * Gets how far the clock is past the current timeline position, i.e. how late
+     * the frame being drawn for that position already is.
+     *
+     * @return Lateness in nanoseconds; negative if the position is still ahead
+     */
+    public synchronized long getLatenessNanos() {
+        return started ? now() - positionNanos : 0;
+    }
+
+    /**
+     * Gets the timeline position the clock has reached.
+     *
+     * @return Position in nanoseconds, or 0 if not started
+     */
+    public long getElapsedNanos() {
+        return started ? now() : 0;
+    }
+
+    /**
+     * Gets the clock deadlines are measured on.
+     */
+    public ShowClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Waits until the clock reaches the given position.
+     * Parks for the bulk of the wait and spins for the final stretch; returns
+     * immediately if the deadline has already passed.
+     */
+    private void awaitDeadline(long deadline) {
+        long remaining = deadline - now();
+        if (remaining <= 0) {
+            if (remaining < 0) {
+                ShowMetrics.shared().recordLateDeadline(-remaining);
+            }
+            return;
+        }
+        if (clock.advanceTo(deadline - originNanos)) {
+            return;
+        }
+        while (remaining > spinNanos) {
+            LockSupport.parkNanos(remaining - spinNanos);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            remaining = deadline - now();
+        }
+        // A clock can stall (audio still starting up); stop spinning once the tail overruns its budget
+        long spinLimit = System.nanoTime() + 2 * spinNanos;
+        while ((remaining = deadline - now()) > 0) {
+            if (System.nanoTime() - spinLimit < 0) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(Math.min(remaining, NANOS_PER_MILLI));
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the timeline position of the clock: its own position plus the offset it was started at.
+     */
+    private long now() {
+        return originNanos + clock.positionNanos();
+    }
+}
@@ -0,0 +1,73 @@
+package com.worldexecute;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * VirtualClock - Show clock that runs at a chosen multiple of real time.
+ * The time scale is real seconds per show second: 1 plays in real time,
+ * 0.1 ten times faster, and 0 does not wait at all, so every deadline is
+ * reached the moment it is asked for and the whole show renders as fast as
+ * the effects can draw it. Positions stay in show time either way, so
+ * timestamps reported against this clock match a real run.
+ *
+ * Features:
+ * - Instant mode (time scale 0) for tests and profiling
+ * - Scaled real-time mode for watching a fast-forwarded run
+ */
+public class VirtualClock implements ShowClock {
+
+    private final double timeScale;
+    private volatile long originNanos = System.nanoTime();
+    private volatile long positionNanos;
+
+    /**
+     * Creates a virtual clock.
+     *
+     * @param timeScale Real seconds per show second; 0 means instant
+     */
+    public VirtualClock(double timeScale) {
+        if (timeScale < 0 || Double.isNaN(timeScale) || Double.isInfinite(timeScale)) {
+            throw new IllegalArgumentException("Time scale must be a non-negative number: " + timeScale);
+        }
+        this.timeScale = timeScale;
+    }
+
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    @Override
+    public synchronized void start() {
+        originNanos = System.nanoTime();
+        positionNanos = 0;
+    }
+
+    @Override
+    public long positionNanos() {
+        if (timeScale == 0) {
+            return positionNanos;
+        }
+        return (long) ((System.nanoTime() - originNanos) / timeScale);
+    }
+
+    @Override
+    public boolean advanceTo(long deadlineNanos) {
+        if (timeScale == 0) {
+            synchronized (this) {
+                if (deadlineNanos > positionNanos) {
+                    positionNanos = deadlineNanos;
+                }
+            }
+            return true;
+        }
+        long wakeAt = originNanos + (long) (deadlineNanos * timeScale);
+        long remaining;
+        while ((remaining = wakeAt - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+# Layered demo - effects running side by side
+#
+# Run with -Dworldexecute.script=cueSheets/layers.cue
+#
+# "layer name=N row= col= width= height= z=(1) transparent=(false)" declares a
+# region of the screen. A cue with layer=N draws into that region on its own
+# thread and does not hold up the cues after it; the Compositor merges the
+# shared screen and every visible layer into one frame per tick
+# (-Dworldexecute.fps, default 30). A clear on a layer hides it again.
+
+layer name=panel row=1 col=72 width=46 height=18 z=1
+layer name=status row=20 col=72 width=46 height=3 z=2
+
+chapter name=opening
+readFile asset=textFiles/getDimension layer=panel
+simulateLoading text="Encryption Set" delay=40 layer=status
+slowType text="Switch on the Power Line" delay=50
+slowType text="Remember to Put on -- P R O T E C T I O N" delay=50 space=2
+print text="\e[33m>encryptEnigma();\e[0m"
+slowType text="Lay down your pieces and let's begin \e[33m objectCreation(); \e[0m" delay=50
+
+chapter name=panels
+clear layer=status
+readFile asset=textFiles/getCircumference layer=panel
+animateText text="[Console]Fill in my data." color=green loops=5
+slowType text="Parameters. " delay=70
+slowType text="Initialization. " delay=70
+clear layer=panel
+slowType text="Setup our new world." delay=70
@@ -0,0 +1,263 @@
+# World.Execute(Me) - default cue sheet
+#
+# One cue per line: <effect> key=value ...
+# Values containing spaces are double-quoted; \e is ESC, \" a quote, \\ a backslash.
+# Lines indented under a cue add more attributes to it (encryptWall takes one
+# "line" attribute per line of the wall). "repeat count=N" ... "end" expands
+# the cues in between N times. "chapter name=N" marks where a named section
+# begins; --start-at N starts the show there. "layer name=N ..." declares a
+# screen region that cues with layer=N draw into alongside the rest (see layers.cue).
+#
+# Effects and their attributes (defaults in parentheses):
+#   slowType        text delay newLine(true) space(0) color(green)
+#   slowType2       text name delay newLine(true) space(0) color(green)
+#   animateText     text actor("") color(green) loops sepColor(false)
+#   encryptWall     loops line...
+#   simulateLoading text delay
+#   simulateWorld   world(1)
+#   simulateWorld2  world(2)
+#   readFile        asset
+#   readFileColor   asset colors("+:red,$:yellow,X:yellow")
+#   readFileQuick   asset
+#   print           text("") newLine(true)
+#   clear
+#   pause           delay
+
+# Opening sequence
+chapter name=opening
+slowType text="Switch on the Power Line" delay=50
+readFile asset=textFiles/logoRhine
+slowType text="Remember to Put on -- P R O T E C T I O N" delay=50 space=2
+print text="\e[33m>encryptEnigma();\e[0m"
+simulateLoading text="Encryption Set" delay=20
+print
+
+slowType text="Lay down your pieces and let's begin \e[33m objectCreation(); \e[0m" delay=50
+animateText text="[Console]Fill in my data." color=green loops=5
+readFile asset=textFiles/createObject
+slowType text="Parameters. " delay=70
+
+encryptWall loops=3
+    line="bVJijcss"
+    line="ijcssjzpTjH9no@K-emz"
+    line="1+Rza-<cT+G\"sC6IhJci!b "
+    line="8V!g8WFkHzm<"
+    line="9no@K-emz"
+    line="56.23.15  >> Rotors ON "
+
+slowType text="Initialization." delay=60
+print text="\e[31m" newLine=false
+readFile asset=textFiles/getError
+print text="\e[0m" newLine=false
+
+animateText text="world.toggleValidity(false)" color=yellow loops=3
+animateText text="world.toggleTelementary(false)" color=yellow loops=3
+simulateLoading text=" Applying World Settings" delay=10
+
+slowType text="Setup our new world" delay=40
+animateText text="World world = new World(5);" color=yellow loops=1
+animateText text="world.addThing(me);" color=yellow loops=1
+animateText text="world.addThing(You);" color=yellow loops=1
+slowType text="let's begin..." delay=30
+slowType text="T H E  S I M U L A T I O N ::" delay=45
+clear
+
+chapter name=simulation
+animateText text="world.activateSimulation()" color=yellow loops=5
+simulateWorld world=1
+readFile asset=textFiles/getServer
+pause delay=180
+
+# Second Chorus
+chapter name=second-chorus
+readFile asset=textFiles/newWorldSettings
+slowType text="If I'm a set of points." delay=50
+slowType text="then I will give you my dimensions" delay=45 newLine=false
+animateText text="getDimension();" actor="[Console] then I will give you my" color=green loops=5 sepColor=true
+readFile asset=textFiles/getDimension
+
+slowType text="If I'm a circle." delay=70
+slowType text="then I will give you my circumference." delay=45 newLine=false
+animateText text="getCircumference();" actor="[Console] then I will give you my " color=green loops=5 sepColor=true
+readFile asset=textFiles/getCircumference
+
+slowType text="If I'm a sineWave." delay=50
+slowType text="then you can sit on all my tangents" delay=50 newLine=false
+animateText text="getTangents()" actor="[Console]" color=green loops=5
+readFile asset=textFiles/getTangent
+
+slowType text="If I approach infinity" delay=70
+animateText text="[Console] then you can be my limitations" color=green loops=10 sepColor=true
+
+encryptWall loops=1
+    line=" 22145432389"
+    line="    32312421424242"
+    line="     4124143545433"
+    line="       █████████"
+    line="         ███████████████"
+    line="you.applyLimitation(me,int.max);"
+
+slowType text="Switch my Current" delay=80
+
+encryptWall loops=1
+    line="DC ---> AC"
+    line="Converting..."
+    line="Converting.. to AC to DC"
+    line="████████████████████████████████████ 98%   "
+    line="               Converted AC to DC               "
+
+slowType text="And then blind my Vision" delay=70
+slowType text="So dizzy," delay=120
+animateText text="WARNING: Setting me.toggleVision() OFF will ----" color=yellow loops=5
+animateText text="WARNING: Setting me.toggleVision() OFF will ----" color=yellow loops=5
+slowType text="So dizzy" delay=120
+animateText text="world.disableWarnings()" color=yellow loops=5
+
+slowType text="Oh, we can travel to... " delay=80
+slowType text="AB to BC" delay=120
+animateText text="Year: 2332 BC" actor="[World] Setting Date to: " loops=5
+
+encryptWall loops=1
+    line="[World] Setting Locations:████████████ "
+    line="[World]: Setting Locations: BABY████████████ "
+    line="[World]: Setting Locations: BABYLON, Year: 2332 B.C "
+
+slowType text="And we can unite to" delay=70
+readFile asset=textFiles/getDeeply
+slowType text="so deeply," delay=80
+animateText text="me.addLover('you')" color=yellow loops=3
+slowType text="so deeply" delay=80
+animateText text="you.addLover('me')" color=yellow loops=3
+
+slowType text="If I can" delay=110
+slowType text="If I can" delay=110
+slowType text="give you all the" delay=60
+slowType text="S T I M U L A T I O N S" delay=60
+animateText text="you.getAffections();" actor="[World] Applying 'You' " loops=3
+slowType text="Then I can, then I can be your only S A T I S F A C T I O N" delay=40
+
+animateText text="world.removeCharacters('all','nonEssential');" color=yellow loops=3
+animateText text="[REDACTED]" actor="[World] Deleting Character: " loops=2
+animateText text="[REDACTED]" actor="[World] Deleting Character: " loops=2
+
+slowType text="If I can make you happy," delay=50
+slowType text="I will run the  \e[31mworld.execution();\e[0m" delay=50
+animateText text="Simulation already Active" actor="[World] " loops=2
+readFile asset=textFiles/newWorldSettings
+
+slowType text="Though we are trapped in this STRANGE, strange simulation" delay=40
+
+# Third verse
+chapter name=third-verse
+slowType text="If I'm an eggplant" delay=90
+readFile asset=textFiles/getEggplant
+slowType text="then I will give you my nutrients" delay=70
+animateText text="if(me is Eggplant) =>you.addAttribute(me.getAttribute('nutrients'))" loops=2
+
+slowType text="If I'm a tomato," delay=85
+animateText text="if(me is Apple) => you.addAttribute(me.getAttribute('antioxidants'))" loops=2
+slowType text="then I will give you antioxidants" delay=60
+readFile asset=textFiles/getTomato
+
+slowType text="If I'm a tabby cat," delay=87
+animateText text="if(me is Cat){ => you.addAttribute(me.getLanguage('meow'))" loops=2
+slowType text="then I will purr for your enjoyment" delay=50
+readFile asset=textFiles/getCat
+
+slowType text="If I'm the only \e[31mGOD\e[0m," delay=40
+animateText text="[REDACTED] as Owner" actor="[World] Set player " loops=2
+animateText text="[REDACTED] as Owner" actor="[World] Set player " loops=2
+animateText text="[REDACTED] as Owner" actor="[World] Set player " loops=2
+slowType text="then you're the proof of my " delay=50 newLine=false
+animateText text="E X I S T E N C E" actor="[World] Set player" color=red loops=3
+
+slowType text="Switch my gender to \e[31mF to M\e[0m" delay=75
+animateText text="Male" actor="[World] Set player's gender:" loops=3
+slowType text="And then do whatever from \e[31mAM to PM\e[0m" delay=70 space=1
+animateText text="UTC + 8" actor="[World] Changing Timezone:" loops=5
+animateText text="4:23 P.M 22/10/2023" actor="[World] Updating Time: " loops=5
+
+slowType text="Oh, switch my role \e[31mS to M\e[0m" delay=85 space=1
+slowType text="me.toggleLovable())" delay=55 color=yellow
+slowType text="So we can enter the trance, the trance" delay=60
+
+slowType text="If I can," delay=80
+slowType text="If I can" delay=80
+slowType text="if I can, feel your vibrations" delay=80
+readFile asset=textFiles/getVibration
+slowType text="then I can finally be completion" delay=60
+simulateLoading text="C O M P L E T I O N" delay=10
+print
+
+# Emotional climax
+chapter name=climax
+slowType text="Though you have left," delay=70 space=1
+slowType text="Though you have left," delay=65 space=1
+animateText text="THOUGH YOU HAVE LEFT!" actor="[Console] " color=red loops=10
+animateText text="THOUGH YOU HAVE LEFT!" actor="[Console] " color=red loops=10
+animateText text="THOUGH YOU HAVE LEFT!" actor="[Console] " color=red loops=10
+slowType text="You have left me in isolation" delay=73
+
+slowType text="If I can," delay=80
+slowType text="If I can" delay=80
+slowType text="Erase all the pointless fragments" delay=80
+slowType text="Then maybe," delay=80
+slowType text="then maybe, you won't leave me so disheartened" delay=70 space=1
+
+# Breakdown
+chapter name=breakdown
+slowType text="Challenging your God" delay=100 space=1
+animateText text="$@$%)#()#*)#*^^#(" actor="[Console] " color=red loops=5
+slowType text="You have made some ILLEGAL ARGUMENTS *" delay=93 color=red
+slowType text="(*&(%#)()_%(# some ILLEGAL ARGUMENTS *" delay=85 color=red
+slowType text="You ha40)(*$)_@%@$ ILLEGAL ARGUMENTS *" delay=85 color=red
+slowType text="You have 78^*&(*)*$#LLEGAL ARGUMENTS *" delay=85 color=red
+slowType text="You have made some ILLEGAL ARGUMENTS *" delay=110 color=red
+
+readFile asset=textFiles/newWorldSettings
+readFile asset=textFiles/getError
+readFile asset=textFiles/getError
+clear
+
+# EXECUTION sequence
+chapter name=execution
+repeat count=7
+slowType text="EXECUTION" delay=120 color=red
+end
+repeat count=3
+slowType text="EXECUTION" delay=110 color=red
+end
+clear
+
+slowType text="Ein, dos, trois,  , fem,  , EXECUTION" delay=70 color=red
+print text="\e[31m" newLine=false
+readFile asset=textFiles/getError
+readFile asset=textFiles/getError2
+print text="\e[0m" newLine=false
+clear
+
+# Final chorus
+chapter name=finale
+slowType text="If I can, if I can give them all the EXECUTION" delay=70 color=red
+slowType text="Then I can, then I can be your only EXECUTION" delay=70 color=red
+slowType text="If I can have you back, I will run the EXECUTION" delay=70 color=red
+readFile asset=textFiles/getError2
+slowType text="Though we are trapped, we are trapped, ah ah ah ah" delay=70 color=red
+clear
+
+slowType text="I've studied, I've studied how to properly l-o-ove" delay=75 color=red
+slowType text="Question me, question me I can answer all lo-o-ove" delay=70 color=red
+readFile asset=textFiles/getError2
+clear
+
+slowType text="I know the algebraic expression of lo-ove" delay=65 color=red
+slowType text="Though you are free, I am trapped, trapped in l-o-o-ve" delay=60 color=red
+simulateWorld2 world=2
+readFile asset=textFiles/getError2
+clear
+
+slowType text="EXECUTION" delay=40 color=red
+readFile asset=textFiles/getError2
+readFile asset=textFiles/getError2
+readFile asset=textFiles/getError2
+readFile asset=textFiles/getError2
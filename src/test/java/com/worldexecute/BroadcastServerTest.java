@@ -0,0 +1,250 @@
+package com.worldexecute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * BroadcastServerTest - Connects viewers to a BroadcastServer over the loopback interface.
+ */
+public class BroadcastServerTest {
+
+    private static final byte[] PROMPT = "intro\r\n>".getBytes(StandardCharsets.UTF_8);
+    private static final int TIMEOUT_MILLIS = 5000;
+    private static final int IDLE_CONNECTIONS = 2000;
+
+    private BroadcastServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new BroadcastServer(0, PROMPT);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.finish();
+    }
+
+    @Test
+    public void viewerGetsKeyframeThenFrames() throws Exception {
+        try (Socket socket = connect()) {
+            InputStream in = socket.getInputStream();
+            assertEquals("intro\r\n>", readString(in, PROMPT.length));
+            login(socket, BroadcastServer.PASSWORD);
+            server.awaitFirstViewer();
+
+            server.publish(bytes("frame0"), bytes("[key]"));
+            server.publish(bytes("frame1"), null);
+            server.publish(bytes("frame2"), null);
+            server.finish();
+
+            assertEquals("[key]frame1frame2", readToEnd(in));
+            assertEquals(3, server.getFrameCount());
+            assertEquals(0, server.getResyncCount());
+        }
+    }
+
+    @Test
+    public void wrongPasswordIsDenied() throws Exception {
+        try (Socket socket = connect()) {
+            InputStream in = socket.getInputStream();
+            readString(in, PROMPT.length);
+            login(socket, "hello world");
+
+            assertTrue(readToEnd(in).contains("Access denied."));
+        }
+    }
+
+    @Test
+    public void telnetOptionsAreIgnoredInPassword() throws Exception {
+        try (Socket socket = connect()) {
+            InputStream in = socket.getInputStream();
+            readString(in, PROMPT.length);
+            OutputStream out = socket.getOutputStream();
+            // IAC WILL NAWS, then IAC SB NAWS 0 80 0 24 IAC SE
+            out.write(new byte[] {(byte) 255, (byte) 251, 31});
+            out.write(new byte[] {(byte) 255, (byte) 250, 31, 0, 80, 0, 24, (byte) 255, (byte) 240});
+            login(socket, BroadcastServer.PASSWORD);
+            server.awaitFirstViewer();
+
+            server.publish(bytes("frame0"), bytes("[key]"));
+            server.finish();
+
+            assertEquals("[key]", readToEnd(in));
+        }
+    }
+
+    @Test
+    public void viewerJoiningMidShowStartsAtNextKeyframe() throws Exception {
+        try (Socket first = connect()) {
+            readString(first.getInputStream(), PROMPT.length);
+            login(first, BroadcastServer.PASSWORD);
+            server.awaitFirstViewer();
+            server.publish(bytes("a"), bytes("[A]"));
+            assertEquals("[A]", readString(first.getInputStream(), 3));
+
+            try (Socket second = connect()) {
+                readString(second.getInputStream(), PROMPT.length);
+                login(second, BroadcastServer.PASSWORD);
+                waitForKeyframeRequest();
+
+                server.publish(bytes("b"), bytes("[B]"));
+                server.publish(bytes("c"), null);
+                server.finish();
+
+                assertEquals("bc", readToEnd(first.getInputStream()));
+                assertEquals("[B]c", readToEnd(second.getInputStream()));
+            }
+        }
+    }
+
+    @Test
+    public void framesStayInOrderPastTheEndOfTheHistory() throws Exception {
+        try (Socket socket = connect()) {
+            InputStream in = socket.getInputStream();
+            readString(in, PROMPT.length);
+            login(socket, BroadcastServer.PASSWORD);
+            server.awaitFirstViewer();
+
+            Thread publisher = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    // Attach keyframes on request, as the show does
+                    byte[] keyframe = server.isKeyframeWanted() ? bytes("K" + i + ";") : null;
+                    server.publish(bytes("f" + i + ";"), keyframe);
+                    if (i % 64 == 63) {
+                        // Let the selector keep up now and then, as a show paced by its clock would
+                        pause(1);
+                    }
+                }
+                server.finish();
+            });
+            publisher.start();
+            String received = readToEnd(in);
+            publisher.join();
+
+            // Every frame follows the one before it or the keyframe taken after it
+            int expected = -1;
+            int frames = 0;
+            for (String token : received.split(";")) {
+                int seq = Integer.parseInt(token.substring(1));
+                if (token.charAt(0) == 'K') {
+                    expected = seq + 1;
+                } else {
+                    assertEquals(expected, seq);
+                    expected++;
+                    frames++;
+                }
+            }
+            // A viewer that resyncs near the end waits for a keyframe that never comes
+            assertTrue("Viewer never got past the history: " + expected, expected > 1024);
+            assertTrue(frames > 0);
+        }
+    }
+
+    @Test
+    public void viewerIsServedAlongsideThousandsOfIdleConnections() throws Exception {
+        List<Socket> idle = new ArrayList<>();
+        try {
+            for (int i = 0; i < IDLE_CONNECTIONS; i++) {
+                try {
+                    idle.add(connect());
+                } catch (IOException e) {
+                    Assume.assumeNoException("Not enough file descriptors for the idle connections", e);
+                }
+            }
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (server.getClientCount() < IDLE_CONNECTIONS) {
+                assertTrue("Only " + server.getClientCount() + " connections accepted",
+                    System.currentTimeMillis() < deadline);
+                Thread.sleep(5);
+            }
+
+            try (Socket socket = connect()) {
+                InputStream in = socket.getInputStream();
+                assertEquals("intro\r\n>", readString(in, PROMPT.length));
+                login(socket, BroadcastServer.PASSWORD);
+                server.awaitFirstViewer();
+
+                server.publish(bytes("frame0"), bytes("[key]"));
+                server.publish(bytes("frame1"), null);
+                assertEquals("[key]frame1", readString(in, 11));
+                assertEquals(IDLE_CONNECTIONS + 1, server.getClientCount());
+            }
+        } finally {
+            for (Socket socket : idle) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    public void connectionsThatNeverLogInAreClosed() throws Exception {
+        server.setHandshakeTimeoutMillis(100);
+        try (Socket socket = connect()) {
+            InputStream in = socket.getInputStream();
+            readString(in, PROMPT.length);
+
+            // The limit is checked once a second
+            assertEquals(-1, in.read());
+            assertEquals(1, server.getDroppedCount());
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        socket.setSoTimeout(TIMEOUT_MILLIS);
+        return socket;
+    }
+
+    private static void login(Socket socket, String password) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write((password + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private void waitForKeyframeRequest() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!server.isKeyframeWanted()) {
+            assertTrue("Viewer was never let in", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(InputStream in, int length) throws IOException {
+        byte[] data = in.readNBytes(length);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    private static String readToEnd(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        in.transferTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,201 @@
+package com.worldexecute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * CueSheetTest - Compiles small cue sheets and checks the timelines and errors they produce.
+ */
+public class CueSheetTest {
+
+    @Test
+    public void cuesFollowEachOther() throws IOException {
+        Timeline timeline = compile(
+            "# comment",
+            "",
+            "pause delay=1000",
+            "print text=\"a \\\"b\\\" \\\\ \\e[0m\" newLine=false",
+            "pause delay=500");
+
+        assertEquals(3, timeline.size());
+        assertEquals(CueType.PAUSE, timeline.get(0).getType());
+        assertEquals("a \"b\" \\ \u001b[0m", timeline.get(1).getText());
+        assertEquals(false, timeline.get(1).isNewLine());
+        assertEquals(1000, timeline.get(1).getStartMillis());
+        assertEquals(1000, timeline.get(2).getStartMillis());
+        assertEquals(1500, timeline.getDurationMillis());
+    }
+
+    @Test
+    public void indentedLinesAddAttributes() throws IOException {
+        Timeline timeline = compile(
+            "encryptWall loops=2",
+            "    line=one",
+            "    line=\"two words\"",
+            "pause delay=10");
+
+        assertEquals(Arrays.asList("one", "two words"), timeline.get(0).getLines());
+        assertEquals(2, timeline.get(0).getLoops());
+    }
+
+    @Test
+    public void repeatBlocksExpand() throws IOException {
+        Timeline timeline = compile(
+            "print text=start",
+            "repeat count=2",
+            "pause delay=100",
+            "repeat count=3",
+            "print text=inner",
+            "end",
+            "end",
+            "print text=done");
+
+        // start, then (pause, inner x3) x2, then done
+        assertEquals(10, timeline.size());
+        assertEquals("inner", timeline.get(4).getText());
+        assertEquals(CueType.PAUSE, timeline.get(5).getType());
+        assertEquals(100, timeline.get(5).getStartMillis());
+        assertEquals(200, timeline.get(6).getStartMillis());
+        assertEquals("done", timeline.get(9).getText());
+        assertEquals(200, timeline.get(9).getStartMillis());
+    }
+
+    @Test
+    public void chaptersMarkTheirFirstCue() throws IOException {
+        Timeline timeline = compile(
+            "chapter name=intro",
+            "pause delay=1000",
+            "pause delay=1000",
+            "chapter name=outro",
+            "pause delay=1000");
+
+        assertEquals(Arrays.asList("intro", "outro"), timeline.getChapterNames());
+        assertEquals(0, timeline.indexOfChapter("intro"));
+        assertEquals(2, timeline.indexOfChapter("outro"));
+        assertEquals(-1, timeline.indexOfChapter("missing"));
+        assertEquals("outro", timeline.chapterStartingAt(2));
+        assertNull(timeline.chapterStartingAt(1));
+    }
+
+    @Test
+    public void layeredCuesDoNotHoldUpTheRest() throws IOException {
+        Timeline timeline = compile(
+            "layer name=panel row=2 col=3 width=10 height=4 z=2 transparent=true",
+            "pause delay=5000 layer=panel",
+            "pause delay=1000",
+            "print text=after");
+
+        assertEquals(1, timeline.getLayers().size());
+        Layer panel = timeline.getLayers().get(0);
+        assertEquals("panel", panel.getName());
+        assertEquals(2, panel.getRow());
+        assertEquals(3, panel.getCol());
+        assertEquals(2, panel.getZ());
+        assertTrue(panel.isTransparent());
+        assertEquals("panel", timeline.get(0).getLayer());
+        assertEquals(panel, timeline.layerOf(timeline.get(0)));
+        assertNull(timeline.layerOf(timeline.get(1)));
+        assertEquals(0, timeline.get(1).getStartMillis());
+        assertEquals(1000, timeline.get(2).getStartMillis());
+    }
+
+    @Test
+    public void positionsResolveToCues() throws IOException {
+        Timeline timeline = compile(
+            "chapter name=first",
+            "pause delay=30000",
+            "chapter name=second",
+            "pause delay=60000",
+            "pause delay=30000");
+
+        assertEquals(1, timeline.indexOfPosition("second"));
+        assertEquals(0, timeline.indexOfPosition("0"));
+        assertEquals(0, timeline.indexOfPosition("29.999"));
+        assertEquals(1, timeline.indexOfPosition("30"));
+        assertEquals(1, timeline.indexOfPosition("1:29.5"));
+        assertEquals(2, timeline.indexOfPosition("1:30"));
+        assertEquals(2, timeline.indexOfPosition("10:00"));
+        assertEquals(-1, timeline.indexOfPosition("third"));
+        assertEquals(-1, timeline.indexOfPosition("1:-5"));
+    }
+
+    @Test
+    public void positionsParse() {
+        assertEquals(83500, Timeline.parsePosition("83.5"));
+        assertEquals(83500, Timeline.parsePosition("1:23.5"));
+        assertEquals(0, Timeline.parsePosition("0:00"));
+        assertEquals(59999, Timeline.parsePosition("0:59.999"));
+        assertEquals(500, Timeline.parsePosition(".5"));
+    }
+
+    @Test
+    public void badPositionsAreRejected() {
+        for (String position : new String[] {"", "-5", "+5", "1:-5", "1:+5", "-1:30", "-0:30", "1:60", "1:75.5",
+                                             "1:", ":30", "1:2:3", "NaN", "Infinity", "1:NaN", "1e400", "abc"}) {
+            assertEquals("Accepted '" + position + "'", -1, Timeline.parsePosition(position));
+        }
+    }
+
+    @Test
+    public void errorsNameTheLine() throws IOException {
+        expectError("test.cue:2: unknown effect 'bogus'", "pause delay=1", "bogus text=x");
+        expectError("test.cue:1: missing required attribute 'delay'", "pause");
+        expectError("test.cue:1: attribute 'delay' is not a number: soon", "pause delay=soon");
+        expectError("test.cue:1: print has no attribute 'colour'", "print colour=red");
+        expectError("test.cue:1: expected key=value but found 'text'", "print text");
+        expectError("test.cue:1: unterminated quoted value", "print text=\"open");
+        expectError("test.cue:1: unknown escape \\q", "print text=\"\\q\"");
+        expectError("test.cue:1: indented line does not follow a cue", "  line=x");
+        expectError("test.cue:1: unknown layer 'side'", "print text=x layer=side");
+    }
+
+    @Test
+    public void badStructureIsRejected() throws IOException {
+        expectError("test.cue:1: 'end' without 'repeat'", "end");
+        expectError("test.cue:2: 'repeat' without 'end'", "pause delay=1", "repeat count=2", "pause delay=1");
+        expectError("test.cue:1: repeat count must be at least 1", "repeat count=0", "end");
+        expectError("test.cue:2: 'chapter' inside a repeat block", "repeat count=2", "chapter name=a", "end");
+        expectError("test.cue:3: duplicate chapter 'a'", "chapter name=a", "pause delay=1", "chapter name=a");
+        expectError("test.cue: chapter 'tail' has no cues", "pause delay=1", "chapter name=tail");
+        expectError("test.cue:2: duplicate layer 'p'",
+            "layer name=p row=1 col=1 width=2 height=2", "layer name=p row=1 col=1 width=2 height=2");
+        expectError("test.cue:1: layer 'p' must be at least 1x1", "layer name=p row=1 col=1 width=0 height=2");
+    }
+
+    @Test
+    public void defaultSheetHasEveryChapter() {
+        Timeline timeline = CueSheet.loadDefault();
+
+        assertEquals(Arrays.asList("opening", "simulation", "second-chorus", "third-verse",
+            "climax", "breakdown", "execution", "finale"), timeline.getChapterNames());
+        int previous = -1;
+        for (String chapter : timeline.getChapterNames()) {
+            int index = timeline.indexOfPosition(chapter);
+            assertTrue(chapter + " is out of order", index > previous);
+            assertEquals(chapter, timeline.chapterStartingAt(index));
+            previous = index;
+        }
+    }
+
+    private static Timeline compile(String... lines) throws IOException {
+        return CueSheet.compile(new BufferedReader(new StringReader(String.join("\n", lines))), "test.cue");
+    }
+
+    private static void expectError(String message, String... lines) throws IOException {
+        try {
+            compile(lines);
+            fail("Expected: " + message);
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.worldexecute;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * FrameRingTest - Passes frames through a FrameRing, on one thread and between two.
+ */
+public class FrameRingTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Test
+    public void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(1, new FrameRing(1).getCapacity());
+        assertEquals(8, new FrameRing(5).getCapacity());
+        assertEquals(64, new FrameRing(64).getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBePositive() {
+        new FrameRing(0);
+    }
+
+    @Test
+    public void framesWrapAroundTheRing() {
+        FrameRing ring = new FrameRing(4);
+        long next = 0;
+        for (int i = 0; i < 11; i++) {
+            offer(ring, "frame" + i);
+            if (i % 3 == 2) {
+                long end = ring.awaitPublished(next);
+                assertEquals(3, end - next);
+                for (long sequence = next; sequence < end; sequence++) {
+                    assertEquals("frame" + sequence, read(ring, sequence));
+                }
+                ring.release(end);
+                next = end;
+            }
+        }
+        assertEquals(2, ring.getDepth());
+        assertEquals(3, ring.getMaxDepth());
+        assertEquals("frame9", read(ring, 9));
+        assertEquals("frame10", read(ring, 10));
+    }
+
+    @Test
+    public void publishWithoutAppendDoesNothing() {
+        FrameRing ring = new FrameRing(2);
+        assertFalse(ring.publish());
+        assertEquals(0, ring.getDepth());
+    }
+
+    @Test
+    public void slotsGrowToFitLargeFrames() {
+        FrameRing ring = new FrameRing(2);
+        byte[] chunk = new byte[3000];
+        byte[] expected = new byte[chunk.length * 5];
+        for (int i = 0; i < 5; i++) {
+            Arrays.fill(chunk, (byte) ('a' + i));
+            System.arraycopy(chunk, 0, expected, i * chunk.length, chunk.length);
+            ring.append(chunk, 0, chunk.length);
+        }
+        assertTrue(ring.publish());
+
+        assertEquals(1, ring.awaitPublished(0));
+        assertEquals(expected.length, ring.length(0));
+        assertArrayEquals(expected, Arrays.copyOf(ring.frame(0), ring.length(0)));
+    }
+
+    @Test
+    public void fullRingStallsTheProducerUntilARelease() throws Exception {
+        FrameRing ring = new FrameRing(2);
+        assertEquals(0, offer(ring, "a"));
+        assertEquals(0, offer(ring, "b"));
+
+        AtomicLong stalled = new AtomicLong(-1);
+        Thread producer = new Thread(() -> stalled.set(offer(ring, "c")));
+        producer.start();
+        awaitParked(producer);
+        assertEquals(-1, stalled.get());
+
+        assertEquals(2, ring.awaitPublished(0));
+        ring.release(1);
+        producer.join(TIMEOUT_MILLIS);
+        assertTrue("No stall was reported", stalled.get() > 0);
+        assertEquals(3, ring.awaitPublished(1));
+        assertEquals("b", read(ring, 1));
+        assertEquals("c", read(ring, 2));
+    }
+
+    @Test
+    public void closingAFullRingDropsTheWaitingFrame() throws Exception {
+        FrameRing ring = new FrameRing(2);
+        offer(ring, "a");
+        offer(ring, "b");
+
+        // The consumer holds both slots while the producer waits for one
+        assertEquals(2, ring.awaitPublished(0));
+        AtomicReference<Boolean> published = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            ring.append(bytes("overwrite"), 0, "overwrite".length());
+            published.set(ring.publish());
+        });
+        producer.start();
+        awaitParked(producer);
+        ring.close();
+        producer.join(TIMEOUT_MILLIS);
+
+        assertFalse(producer.isAlive());
+        assertEquals(Boolean.FALSE, published.get());
+        assertEquals("a", read(ring, 0));
+        assertEquals("b", read(ring, 1));
+        ring.release(2);
+
+        assertEquals(0, offer(ring, "late"));
+        assertEquals(-1, ring.awaitPublished(2));
+    }
+
+    @Test
+    public void closedRingIsDrainedBeforeItEnds() {
+        FrameRing ring = new FrameRing(4);
+        offer(ring, "a");
+        offer(ring, "b");
+        ring.close();
+
+        assertEquals(2, ring.awaitPublished(0));
+        ring.release(2);
+        assertEquals(-1, ring.awaitPublished(2));
+    }
+
+    @Test
+    public void framesCrossThreadsInOrder() throws Exception {
+        FrameRing ring = new FrameRing(8);
+        int frames = 200_000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread producer = new Thread(() -> {
+            ByteBuffer frame = ByteBuffer.allocate(8);
+            for (int i = 0; i < frames; i++) {
+                frame.clear();
+                frame.putInt(0, i);
+                // Sizes vary so that some frames arrive in two appends and some slots grow
+                int padding = i % 97 == 0 ? 10_000 : i % 5;
+                ring.append(frame.array(), 0, 4);
+                ring.append(new byte[padding], 0, padding);
+                ring.publish();
+            }
+            ring.close();
+        });
+
+        Thread consumer = new Thread(() -> {
+            try {
+                long next = 0;
+                long end;
+                while ((end = ring.awaitPublished(next)) >= 0) {
+                    for (long sequence = next; sequence < end; sequence++) {
+                        ByteBuffer frame = ByteBuffer.wrap(ring.frame(sequence));
+                        assertEquals(sequence, frame.getInt(0));
+                        int padding = sequence % 97 == 0 ? 10_000 : (int) (sequence % 5);
+                        assertEquals(4 + padding, ring.length(sequence));
+                    }
+                    ring.release(end);
+                    next = end;
+                }
+                assertEquals(frames, next);
+            } catch (Throwable e) {
+                failure.set(e);
+                ring.close();
+            }
+        });
+
+        consumer.start();
+        producer.start();
+        producer.join(TIMEOUT_MILLIS);
+        consumer.join(TIMEOUT_MILLIS);
+        assertFalse("Producer is stuck", producer.isAlive());
+        assertFalse("Consumer is stuck", consumer.isAlive());
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(0, ring.getDepth());
+        assertTrue(ring.getMaxDepth() <= ring.getCapacity());
+    }
+
+    /**
+     * Appends and publishes a frame.
+     *
+     * @return Nanoseconds the producer stalled
+     */
+    private static long offer(FrameRing ring, String text) {
+        byte[] data = bytes(text);
+        long stalled = ring.append(data, 0, data.length);
+        ring.publish();
+        return stalled;
+    }
+
+    private static String read(FrameRing ring, long sequence) {
+        return new String(ring.frame(sequence), 0, ring.length(sequence), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Waits until a thread is parked, i.e. the producer is waiting for a slot.
+     */
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue("Producer never waited", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.worldexecute;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * HeadlessShowTest - Plays the default show headlessly and checks that it is reproducible.
+ */
+public class HeadlessShowTest {
+
+    private static final long SEED = 20240101L;
+
+    private String report;
+
+    @After
+    public void restore() {
+        Terminal.setSink(new NullSink());
+        SessionRandom.reseed(SessionRandom.DEFAULT_SEED);
+    }
+
+    @Test
+    public void sameSeedRendersTheSameBytes() {
+        Timeline timeline = CueSheet.loadDefault();
+        byte[] first = render(timeline, SEED);
+        byte[] second = render(timeline, SEED);
+
+        assertTrue(first.length > 0);
+        assertArrayEquals(first, second);
+        assertFalse("The seed made no difference", Arrays.equals(first, render(timeline, SEED + 1)));
+    }
+
+    @Test
+    public void instantRunEndsAtTheEndOfTheSong() {
+        render(CueSheet.loadDefault(), SessionRandom.DEFAULT_SEED);
+
+        assertTrue(report, report.contains("Rendered " + CueSheet.loadDefault().size() + " cues: show time 3:03.211,"));
+    }
+
+    /**
+     * Plays the whole show at time scale 0 from a cleared screen.
+     *
+     * @return Every byte written to the sink
+     */
+    private byte[] render(Timeline timeline, long seed) {
+        SessionRandom.reseed(seed);
+        Terminal.setSink(new NullSink());
+        ConsoleUtils.clearConsole();
+        ShowMetrics.shared().reset();
+
+        BufferSink sink = new BufferSink();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream reportStream = new PrintStream(out, true, StandardCharsets.UTF_8);
+        HeadlessShow.run(timeline, sink, 0, reportStream);
+        report = out.toString(StandardCharsets.UTF_8);
+        return sink.toByteArray();
+    }
+}
@@ -0,0 +1,106 @@
+package com.worldexecute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * TextAnimatorTest - Checks what the seeded effects draw, and that dropping frames never changes it.
+ */
+public class TextAnimatorTest {
+
+    private static final long SEED = 1234567L;
+
+    @After
+    public void restore() {
+        Terminal.setDropThresholdNanos(Long.getLong("worldexecute.dropThresholdMillis", 40L) * 1_000_000L);
+        Terminal.setSink(new NullSink());
+        SessionRandom.reseed(SessionRandom.DEFAULT_SEED);
+    }
+
+    @Test
+    public void droppingFramesKeepsLayoutAndRandomStream() {
+        Run kept = play(Long.MAX_VALUE);
+        Run dropped = play(0);
+
+        assertEquals(0, kept.framesDropped);
+        assertTrue("Nothing was dropped at a zero budget", dropped.framesDropped > 0);
+        assertTrue("Dropping should write less", dropped.bytes < kept.bytes);
+        assertEquals(kept.layout, dropped.layout);
+        assertEquals("Random stream moved on a different amount", kept.nextRandom, dropped.nextRandom);
+    }
+
+    @Test
+    public void worldGenerationShowsTheSessionSeed() {
+        play(Long.MAX_VALUE);
+        assertTrue(text(Terminal.getScreen()).contains("Seed ID: 00000000001234567"));
+
+        SessionRandom.reseed(SessionRandom.DEFAULT_SEED);
+        TextAnimator.simulateWorld(1);
+        assertTrue(text(Terminal.getScreen()).contains("Seed ID: 03108891624980232"));
+    }
+
+    /**
+     * Plays a few random effects from a fresh session on an instant clock.
+     *
+     * @param thresholdNanos Drop budget; 0 drops every intermediate frame, Long.MAX_VALUE none
+     */
+    private static Run play(long thresholdNanos) {
+        SessionRandom.reseed(SEED);
+        Terminal.setDropThresholdNanos(thresholdNanos);
+        BufferSink sink = new BufferSink();
+        Terminal.setSink(sink);
+        TimelineScheduler scheduler = new TimelineScheduler(0, new VirtualClock(0));
+        TimelineScheduler.setShared(scheduler);
+        scheduler.start();
+        ShowMetrics.shared().reset();
+        ConsoleUtils.clearConsole();
+
+        TextAnimator.animateText("Fill in my data.", "[Console]", "green", 12, false);
+        TextAnimator.simulateWorld(1);
+        TextAnimator.encryptWall(3, Arrays.asList("bVJijcss", "ijcssjzpTjH9no@K-emz", "8V!g8WFkHzm<"));
+        TextAnimator.animateText("Alice", "[World]", "red", 8, true);
+
+        Run run = new Run();
+        run.layout = snapshot(Terminal.getScreen());
+        run.nextRandom = SessionRandom.current().nextLong();
+        run.framesDropped = ShowMetrics.shared().getFramesDropped();
+        run.bytes = sink.size();
+        return run;
+    }
+
+    private static String snapshot(Screen screen) {
+        CellGrid grid = screen.getBackGrid();
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < grid.getHeight(); row++) {
+            for (int col = 0; col < grid.getWidth(); col++) {
+                text.appendCodePoint(grid.codepointAt(row, col)).append((char) ('A' + grid.colorAt(row, col)));
+            }
+            text.append('\n');
+        }
+        return text.append(screen.getCursorRow()).append(',').append(screen.getCursorCol()).toString();
+    }
+
+    private static String text(Screen screen) {
+        CellGrid grid = screen.getBackGrid();
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < grid.getHeight(); row++) {
+            for (int col = 0; col < grid.getWidth(); col++) {
+                text.appendCodePoint(grid.codepointAt(row, col));
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    private static final class Run {
+        private String layout;
+        private long nextRandom;
+        private long framesDropped;
+        private int bytes;
+    }
+}